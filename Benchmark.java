@@ -0,0 +1,437 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+//This class contains simple micro benchmarks for the search engine. The results are printed to the console.
+public class Benchmark {
+
+  //the number of runs of every measurement; the best run is reported
+  private static final int RUNS = 5;
+
+  public static void main(String[] args) throws IOException {
+    benchmarkWordCountsArrayIngestion();
+    benchmarkTokenizer();
+    benchmarkParallelPageRank();
+    benchmarkPageRankSolvers();
+    benchmarkMonteCarloPageRank();
+    benchmarkBlockRank();
+    benchmarkHits();
+    benchmarkLocalityOrdering();
+    benchmarkCrawler();
+  }
+
+  //Measures how long it takes to add documents with 10k to 1M tokens to a WordCountsArray.
+  private static void benchmarkWordCountsArrayIngestion() {
+    System.out.println("WordCountsArray ingestion");
+
+    for (int numTokens = 10000; numTokens <= 1000000; numTokens *= 10) {
+      String[] tokens = randomTokens(numTokens, numTokens / 10, new Random(42));
+
+      long best = Long.MAX_VALUE;
+      int distinctWords = 0;
+      for (int run = 0; run < RUNS; run++) {
+        long start = System.nanoTime();
+        WordCountsArray wca = new WordCountsArray(0);
+        for (int i = 0; i < tokens.length; i++) {
+          wca.add(tokens[i], 1);
+        }
+        best = Math.min(best, System.nanoTime() - start);
+        distinctWords = wca.size();
+      }
+
+      System.out.println("  " + numTokens + " tokens, " + distinctWords + " distinct words: " + (best / 1000000.0)
+          + " ms (" + (long) (numTokens / (best / 1e9)) + " tokens/s)");
+    }
+  }
+
+  //Measures the throughput of the Tokenizer alone and of the creation of a Document (tokenizing, stemming, looking up
+  //the term IDs and counting) in MB of text per second.
+  private static void benchmarkTokenizer() {
+    System.out.println("Tokenizer throughput");
+
+    Random random = new Random(42);
+    String[] tokens = randomTokens(2000000, 200000, random);
+    String[] separators = { " ", " ", " ", " ", ", ", ". ", "\n", "\t", "! " };
+    StringBuilder textBuilder = new StringBuilder();
+    for (int i = 0; i < tokens.length; i++) {
+      textBuilder.append(tokens[i]).append(separators[random.nextInt(separators.length)]);
+    }
+    String text = textBuilder.toString();
+    double megabytes = text.length() / (1024.0 * 1024.0);
+
+    long bestTokenizer = Long.MAX_VALUE;
+    long bestDocument = Long.MAX_VALUE;
+    int numTokens = 0;
+    for (int run = 0; run < RUNS; run++) {
+      long start = System.nanoTime();
+      Tokenizer tokenizer = new Tokenizer(text);
+      numTokens = 0;
+      while (tokenizer.next()) {
+        numTokens++;
+      }
+      bestTokenizer = Math.min(bestTokenizer, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      new Document("", "", "", null, null, text);
+      bestDocument = Math.min(bestDocument, System.nanoTime() - start);
+    }
+
+    System.out.println("  " + String.format("%.1f", megabytes) + " MB, " + numTokens + " tokens");
+    System.out.println("  Tokenizer: " + String.format("%.1f", megabytes / (bestTokenizer / 1e9)) + " MB/s");
+    System.out.println("  Document:  " + String.format("%.1f", megabytes / (bestDocument / 1e9)) + " MB/s");
+  }
+
+  //Measures the PageRank power iteration on a random graph with 1M documents and 10M links, sequentially and on
+  //ForkJoinPools with 1 up to the number of available processors threads.
+  private static void benchmarkParallelPageRank() {
+    System.out.println("Parallel PageRank");
+
+    LinkGraph graph = randomGraph(1000000, 10, new Random(42));
+    double dampingFactor = 0.85;
+
+    long start = System.nanoTime();
+    double[] ranks = new double[graph.numNodes()];
+    Arrays.fill(ranks, 1.0d / ranks.length);
+    for (int i = 0; i < 10; i++) {
+      ranks = graph.pageRankStep(ranks, dampingFactor);
+    }
+    System.out.println("  sequential: " + ((System.nanoTime() - start) / 10 / 1000000.0) + " ms/iteration");
+
+    for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+      ParallelPageRank solver = new ParallelPageRank(threads);
+      solver.compute(graph, dampingFactor, LinkedDocumentCollection.PAGERANK_EPS);
+
+      long[] times = solver.getIterationTimes();
+      long best = Long.MAX_VALUE;
+      long total = 0;
+      for (int i = 0; i < times.length; i++) {
+        best = Math.min(best, times[i]);
+        total += times[i];
+      }
+      System.out.println("  " + threads + " threads: " + times.length + " iterations, " + (total / 1000000.0)
+          + " ms, best iteration " + (best / 1000000.0) + " ms");
+    }
+  }
+
+  //Compares the PageRankSolvers on a random graph with 200k documents and on a graph of 200 clusters with 1000
+  //documents each, on which power iteration converges slowly: the number of iterations, the time and the largest
+  //difference to the values of power iteration. Then compares Gauss-Seidel with power iteration on the random graph,
+  //after some of its links have been turned into links leaving the graph.
+  private static void benchmarkPageRankSolvers() {
+    System.out.println("PageRank solvers");
+
+    LinkGraph graph = randomGraph(200000, 10, new Random(42));
+    double dampingFactor = 0.85;
+    double[] start = new double[graph.numNodes()];
+    Arrays.fill(start, 1.0d / start.length);
+
+    String[] names = { "power iteration (max)", "power iteration (L1)", "Gauss-Seidel (L1)",
+        "quadratic extrapolation (L1)" };
+    PageRankSolver[] solvers = {
+        new PowerIterationSolver(LinkedDocumentCollection.PAGERANK_EPS, ResidualNorm.MAX),
+        new PowerIterationSolver(1e-6, ResidualNorm.L1),
+        new GaussSeidelSolver(1e-6, ResidualNorm.L1),
+        new ExtrapolatedPowerIterationSolver(1e-6, ResidualNorm.L1, 10) };
+
+    LinkGraph[] graphs = { graph, clusteredGraph(200, 1000, 10, new Random(42)) };
+    for (int g = 0; g < graphs.length; g++) {
+      System.out.println(g == 0 ? "  random graph" : "  clustered graph");
+      double[] reference = null;
+      for (int s = 0; s < solvers.length; s++) {
+        PageRankResult result = solvers[s].solve(graphs[g], dampingFactor, start);
+        double[] pageRanks = result.getPageRanks();
+        if (reference == null) {
+          reference = pageRanks;
+        }
+        System.out.println("    " + names[s] + ": " + result + ", max. difference "
+            + ResidualNorm.MAX.distance(pageRanks, reference));
+      }
+    }
+
+    LinkGraph leaking = withLinksLeaving(graph, 0.2, new Random(42));
+    double[] power = new PowerIterationSolver(LinkedDocumentCollection.PAGERANK_EPS, ResidualNorm.MAX)
+        .solve(leaking, dampingFactor, start).getPageRanks();
+    double[] gaussSeidel = new GaussSeidelSolver(LinkedDocumentCollection.PAGERANK_EPS, ResidualNorm.MAX)
+        .solve(leaking, dampingFactor, start).getPageRanks();
+    System.out.println("  20% of the links leaving the graph: sum of power iteration " + sum(power)
+        + ", of Gauss-Seidel " + sum(gaussSeidel) + ", max. difference after scaling to the same sum "
+        + ResidualNorm.MAX.distance(scaled(power, sum(gaussSeidel)), gaussSeidel));
+  }
+
+  //Returns a copy of the specified graph, in which every link leads out of the graph with the specified probability:
+  //it is removed from the links between the documents, but still counted in the out-degree.
+  private static LinkGraph withLinksLeaving(LinkGraph graph, double probability, Random random) {
+    int n = graph.numNodes();
+    int[] offsets = new int[n + 1];
+    int[] outDegrees = new int[n];
+    int[] targets = new int[graph.numEdges()];
+    int numEdges = 0;
+
+    for (int i = 0; i < n; i++) {
+      offsets[i] = numEdges;
+      for (int k = 0; k < graph.getNumLinks(i); k++) {
+        if (random.nextDouble() >= probability) {
+          targets[numEdges++] = graph.getLink(i, k);
+        }
+      }
+      outDegrees[i] = graph.getOutDegree(i);
+    }
+    offsets[n] = numEdges;
+
+    return new LinkGraph(n, offsets, Arrays.copyOf(targets, numEdges), outDegrees);
+  }
+
+  //Returns the sum of the specified values.
+  private static double sum(double[] values) {
+    double sum = 0;
+    for (int i = 0; i < values.length; i++) {
+      sum += values[i];
+    }
+    return sum;
+  }
+
+  //Returns the specified values scaled to the specified sum.
+  private static double[] scaled(double[] values, double sum) {
+    double[] result = new double[values.length];
+    double factor = sum / sum(values);
+    for (int i = 0; i < values.length; i++) {
+      result[i] = values[i] * factor;
+    }
+    return result;
+  }
+
+  //Measures the time and the error of the Monte Carlo approximation of PageRank on a random graph with 200k documents
+  //for different numbers of walks per document.
+  private static void benchmarkMonteCarloPageRank() {
+    System.out.println("Monte Carlo PageRank");
+
+    LinkGraph graph = randomGraph(200000, 10, new Random(42));
+    double dampingFactor = 0.85;
+    double[] start = new double[graph.numNodes()];
+    Arrays.fill(start, 1.0d / start.length);
+
+    PageRankResult exact = new PowerIterationSolver(LinkedDocumentCollection.PAGERANK_EPS, ResidualNorm.MAX)
+        .solve(graph, dampingFactor, start);
+    System.out.println("  exact: " + exact);
+
+    for (int walksPerNode = 1; walksPerNode <= 64; walksPerNode *= 4) {
+      MonteCarloPageRank approximation = new MonteCarloPageRank(walksPerNode, 0, 42);
+      long begin = System.nanoTime();
+      double[] pageRanks = approximation.compute(graph, dampingFactor);
+      long time = System.nanoTime() - begin;
+
+      System.out.println("  " + walksPerNode + " walks per document: " + (time / 1000000.0) + " ms, L1 error "
+          + ResidualNorm.L1.distance(pageRanks, exact.getPageRanks()) + ", max. error "
+          + ResidualNorm.MAX.distance(pageRanks, exact.getPageRanks()));
+    }
+  }
+
+  //Compares power iteration and BlockRank with blocks of 1000 documents on a graph of 200 clusters with 1000
+  //consecutively numbered documents each, where only a few links lead from one cluster to another.
+  private static void benchmarkBlockRank() {
+    System.out.println("BlockRank");
+
+    LinkGraph graph = clusteredGraph(200, 1000, 10, new Random(42));
+    double dampingFactor = 0.85;
+    double[] start = new double[graph.numNodes()];
+    Arrays.fill(start, 1.0d / start.length);
+
+    PageRankSolver powerIteration = new PowerIterationSolver(LinkedDocumentCollection.PAGERANK_EPS, ResidualNorm.MAX);
+    PageRankSolver blockRankSolver = new BlockRankSolver(LinkedDocumentCollection.PAGERANK_EPS, ResidualNorm.MAX,
+        1000, 0);
+    PageRankResult power = null;
+    PageRankResult blockRank = null;
+    long bestPower = Long.MAX_VALUE;
+    long bestBlockRank = Long.MAX_VALUE;
+    for (int run = 0; run < RUNS; run++) {
+      power = powerIteration.solve(graph, dampingFactor, start);
+      bestPower = Math.min(bestPower, power.getWallTime());
+      blockRank = blockRankSolver.solve(graph, dampingFactor, start);
+      bestBlockRank = Math.min(bestBlockRank, blockRank.getWallTime());
+    }
+    System.out.println("  power iteration: " + power.getNumIterations() + " iterations, " + (bestPower / 1000000.0)
+        + " ms");
+    System.out.println("  BlockRank: " + blockRank.getNumIterations() + " global iterations, "
+        + (bestBlockRank / 1000000.0) + " ms, max. difference "
+        + ResidualNorm.MAX.distance(blockRank.getPageRanks(), power.getPageRanks()));
+  }
+
+  //Measures HITS on a random graph with 200k documents, on the whole graph and on the base sets of 20 random roots,
+  //like for a single query.
+  private static void benchmarkHits() {
+    System.out.println("HITS");
+
+    Random random = new Random(42);
+    LinkGraph graph = randomGraph(200000, 10, random);
+    HITS hits = new HITS(LinkedDocumentCollection.PAGERANK_EPS, 50, 0);
+    System.out.println("  whole graph: " + hits.compute(graph));
+
+    long best = Long.MAX_VALUE;
+    for (int run = 0; run < RUNS; run++) {
+      int[] roots = new int[20];
+      for (int i = 0; i < roots.length; i++) {
+        roots[i] = random.nextInt(graph.numNodes());
+      }
+      best = Math.min(best, hits.compute(graph, roots).getWallTime());
+    }
+    System.out.println("  base set of 20 roots: " + (best / 1000000.0) + " ms");
+  }
+
+  //Measures the time of a PageRank iteration on a random graph with 1M documents, whose documents are numbered
+  //randomly, like in crawl order, and after renumbering them with every NodeOrdering.
+  private static void benchmarkLocalityOrdering() {
+    System.out.println("Locality ordering");
+
+    Random random = new Random(42);
+    int[] shuffle = new int[1000000];
+    for (int i = 0; i < shuffle.length; i++) {
+      int j = random.nextInt(i + 1);
+      shuffle[i] = shuffle[j];
+      shuffle[j] = i;
+    }
+    LinkGraph shuffled = randomGraph(shuffle.length, 10, random).permute(shuffle);
+
+    System.out.println("  random order: " + (bestPageRankStep(shuffled) / 1000000.0) + " ms/iteration");
+    for (NodeOrdering ordering : NodeOrdering.values()) {
+      long start = System.nanoTime();
+      LinkGraph reordered = shuffled.permute(shuffled.localityOrder(ordering));
+      long time = System.nanoTime() - start;
+      System.out.println("  " + ordering + ": " + (bestPageRankStep(reordered) / 1000000.0) + " ms/iteration, "
+          + "renumbering " + (time / 1000000.0) + " ms");
+    }
+  }
+
+  //Returns the best time of a PageRank power iteration step on the specified graph in nanoseconds.
+  private static long bestPageRankStep(LinkGraph graph) {
+    double[] ranks = new double[graph.numNodes()];
+    Arrays.fill(ranks, 1.0d / ranks.length);
+
+    long best = Long.MAX_VALUE;
+    for (int run = 0; run < RUNS; run++) {
+      long start = System.nanoTime();
+      ranks = graph.pageRankStep(ranks, 0.85);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best;
+  }
+
+  //Creates a graph of clusters of documents: every document links to up to maxOutDegree documents of its own cluster
+  //and, with a probability of 5 %, to one document of the next cluster.
+  private static LinkGraph clusteredGraph(int numClusters, int clusterSize, int maxOutDegree, Random random) {
+    int numNodes = numClusters * clusterSize;
+    int[] offsets = new int[numNodes + 1];
+    int[] outDegrees = new int[numNodes];
+    int[] targets = new int[numNodes * (maxOutDegree + 1)];
+    int numEdges = 0;
+
+    for (int i = 0; i < numNodes; i++) {
+      offsets[i] = numEdges;
+      int cluster = i / clusterSize;
+      int outDegree = 1 + random.nextInt(maxOutDegree);
+      for (int e = 0; e < outDegree; e++) {
+        int target = cluster * clusterSize + random.nextInt(clusterSize);
+        if (target != i) {
+          targets[numEdges++] = target;
+        }
+      }
+      if (random.nextDouble() < 0.05) {
+        targets[numEdges++] = ((cluster + 1) % numClusters) * clusterSize + random.nextInt(clusterSize);
+      }
+      outDegrees[i] = numEdges - offsets[i];
+    }
+    offsets[numNodes] = numEdges;
+
+    return new LinkGraph(numNodes, offsets, Arrays.copyOf(targets, numEdges), outDegrees);
+  }
+
+  //Creates a random graph with the specified number of documents, each linking to up to the specified number of
+  //other documents. Documents with small numbers are linked more often, like popular pages in the web.
+  private static LinkGraph randomGraph(int numNodes, int maxOutDegree, Random random) {
+    int[] offsets = new int[numNodes + 1];
+    int[] outDegrees = new int[numNodes];
+    int[] targets = new int[numNodes * maxOutDegree];
+    int numEdges = 0;
+
+    for (int i = 0; i < numNodes; i++) {
+      offsets[i] = numEdges;
+      int outDegree = random.nextInt(maxOutDegree + 1);
+      for (int e = 0; e < outDegree; e++) {
+        double r = random.nextDouble();
+        int target = (int) (r * r * numNodes);
+        if (target != i) {
+          targets[numEdges++] = target;
+        }
+      }
+      outDegrees[i] = numEdges - offsets[i];
+    }
+    offsets[numNodes] = numEdges;
+
+    return new LinkGraph(numNodes, offsets, Arrays.copyOf(targets, numEdges), outDegrees);
+  }
+
+  //Measures a crawl of 2000 linked files with 200 words each in a temporary directory with 1 thread and with the
+  //number of available processors, but at least 4 threads, which parse the files and look up their terms in the
+  //shared TermDictionary concurrently.
+  private static void benchmarkCrawler() throws IOException {
+    System.out.println("Crawler");
+
+    int numFiles = 2000;
+    int numWords = 200;
+    Random random = new Random(42);
+    String[] tokens = randomTokens(numWords * numFiles, 5000, random);
+    Path directory = Files.createTempDirectory("crawl");
+    String[] ids = new String[numFiles];
+    for (int i = 0; i < numFiles; i++) {
+      ids[i] = directory.resolve("seite" + i + ".txt").toString();
+    }
+    for (int i = 0; i < numFiles; i++) {
+      StringBuilder text = new StringBuilder("Seite " + i + "\n");
+      for (int k = 0; k < numWords; k++) {
+        text.append(tokens[numWords * i + k]).append(' ');
+      }
+      for (int k = 0; k < 5; k++) {
+        text.append(LinkedDocument.LINK_PREFIX).append(ids[random.nextInt(numFiles)]).append(' ');
+      }
+      text.append(LinkedDocument.LINK_PREFIX).append(ids[(i + 1) % numFiles]).append('\n');
+      Files.write(directory.resolve("seite" + i + ".txt"), text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    LinkedDocumentCollection seeds = new LinkedDocumentCollection();
+    seeds.appendDocument(LinkedDocument.createLinkedDocumentFromFile(ids[0]));
+    int maxThreads = Math.max(Runtime.getRuntime().availableProcessors(), 4);
+    for (int threads : new int[] { 1, maxThreads }) {
+      long best = Long.MAX_VALUE;
+      Crawler crawler = new Crawler(threads, false);
+      for (int run = 0; run < RUNS; run++) {
+        long start = System.nanoTime();
+        crawler.crawl(seeds);
+        best = Math.min(best, System.nanoTime() - start);
+      }
+      System.out.println("  " + threads + " threads: " + (best / 1000000.0) + " ms (" + crawler.getStatistics() + ")");
+    }
+
+    for (String id : ids) {
+      Files.delete(Path.of(id));
+    }
+    Files.delete(directory);
+  }
+
+  //Creates the specified number of tokens drawn from a vocabulary of the specified size. Small word numbers are
+  //drawn more often than large ones, like in natural language.
+  private static String[] randomTokens(int numTokens, int vocabularySize, Random random) {
+    String[] vocabulary = new String[vocabularySize];
+    for (int i = 0; i < vocabularySize; i++) {
+      vocabulary[i] = "wort" + Integer.toString(i, 26);
+    }
+
+    String[] tokens = new String[numTokens];
+    for (int i = 0; i < numTokens; i++) {
+      double r = random.nextDouble();
+      tokens[i] = vocabulary[(int) (r * r * vocabularySize)];
+    }
+    return tokens;
+  }
+}
@@ -0,0 +1,267 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+//This class calculates PageRank values with the BlockRank algorithm, which exploits, that linked documents form
+//clusters, which are connected by only a few links:
+// 1. the graph is split into blocks of blockSize documents with consecutive numbers, so the blocks follow the
+//    numbering of the documents, like the hosts of web pages, when the documents of a host are numbered
+//    consecutively. Strongly connected components are no good blocks, because most documents of a web graph usually
+//    belong to one giant component; blocks grown by a breadth-first search over the links, like NodeOrdering.BFS,
+//    mix the clusters, because they follow the few links between them as well,
+// 2. a local PageRank is calculated for every block, considering only the links within the block; the blocks are
+//    independent, so they are solved in parallel on a ForkJoinPool. The local and the block PageRank only provide
+//    the start values of step 4, so they are calculated with the loose tolerance LOCAL_EPSILON,
+// 3. a PageRank of the blocks is calculated on the small graph of the blocks, where the links between two blocks are
+//    weighted with the local PageRank of the documents they start from,
+// 4. the global power iteration starts from local PageRank times the PageRank of the block, which is already close to
+//    the result, so it needs fewer iterations than starting from 1 / n.
+//The result is the same as the one of power iteration; the start values passed to solve only determine the sum of the
+//values. The iterations and residuals reported are the ones of the global power iteration.
+//Every instance keeps its pool for all of its calculations; its threads end, when they have been idle for a while.
+public class BlockRankSolver implements PageRankSolver {
+  //the number of documents, below which a range of blocks is solved by one thread
+  private static final int PARALLEL_THRESHOLD = 4096;
+
+  //the local PageRank of a block and the PageRank of the blocks stop, when no value changes by more than this
+  //fraction of the average value
+  private static final double LOCAL_EPSILON = 1e-4;
+
+  //the iterations stop, when the values change by no more than epsilon in the norm
+  private final double epsilon;
+  private final ResidualNorm norm;
+
+  //the number of documents of a block; the last block may be smaller
+  private final int blockSize;
+
+  //the pool solving the blocks
+  private final ForkJoinPool pool;
+
+  //Creates a new solver with the specified stopping rule, which is used for all iterations. Values of parallelism
+  //smaller than 1 mean the number of available processors.
+  public BlockRankSolver(double epsilon, ResidualNorm norm, int blockSize, int parallelism) {
+    if (parallelism < 1) {
+      parallelism = Runtime.getRuntime().availableProcessors();
+    }
+    this.epsilon = epsilon;
+    this.norm = norm;
+    this.blockSize = Math.max(blockSize, 1);
+    this.pool = new ForkJoinPool(parallelism);
+  }
+
+  //Calculates the PageRank values of all documents of the specified graph.
+  public PageRankResult solve(LinkGraph graph, double dampingFactor, double[] start) {
+    long startTime = System.nanoTime();
+    int n = graph.numNodes();
+    PowerIterationSolver refinement = new PowerIterationSolver(this.epsilon, this.norm);
+    if (n == 0) {
+      return refinement.solve(graph, dampingFactor, start);
+    }
+
+    /* block b consists of the documents blockOffsets[b] to blockOffsets[b + 1] - 1 */
+    int numBlocks = (n + this.blockSize - 1) / this.blockSize;
+    int[] blockOffsets = new int[numBlocks + 1];
+    for (int b = 0; b <= numBlocks; b++) {
+      blockOffsets[b] = Math.min(b * this.blockSize, n);
+    }
+
+    double[] localPageRanks = new double[n];
+    this.pool.invoke(new LocalPageRankTask(graph, dampingFactor, blockOffsets, localPageRanks, 0, numBlocks));
+
+    double[] blockPageRanks = this.blockPageRank(graph, dampingFactor, blockOffsets, localPageRanks);
+
+    double sum = 0;
+    for (int i = 0; i < start.length; i++) {
+      sum += start[i];
+    }
+    double[] globalStart = new double[n];
+    for (int i = 0; i < n; i++) {
+      globalStart[i] = sum * blockPageRanks[i / this.blockSize] * localPageRanks[i];
+    }
+
+    PageRankResult result = refinement.solve(graph, dampingFactor, globalStart);
+    return new PageRankResult(result.getPageRanks(), result.getNumIterations(), result.getResiduals(),
+        System.nanoTime() - startTime);
+  }
+
+  //Calculates the PageRank of the blocks. The weight of the link from block J to block I is the sum of
+  //localPageRank(j) / outDegree(j) over all links from a document j of J to a document of I; the teleport term of a
+  //block is proportional to its size.
+  private double[] blockPageRank(LinkGraph graph, double dampingFactor, int[] blockOffsets, double[] localPageRanks) {
+    int n = graph.numNodes();
+    int numBlocks = blockOffsets.length - 1;
+
+    /* the weighted links between the blocks as CSR arrays and the local PageRank of the dangling documents */
+    int[] linkOffsets = new int[numBlocks + 1];
+    int[] linkTargets = new int[16];
+    double[] linkWeights = new double[16];
+    double[] danglingWeights = new double[numBlocks];
+    int numLinks = 0;
+
+    /* the weights of the links from the current block by target block and the target blocks linked so far */
+    double[] weights = new double[numBlocks];
+    int[] linked = new int[numBlocks];
+    for (int b = 0; b < numBlocks; b++) {
+      linkOffsets[b] = numLinks;
+      int numLinked = 0;
+
+      for (int j = blockOffsets[b]; j < blockOffsets[b + 1]; j++) {
+        if (graph.isDangling(j)) {
+          danglingWeights[b] += localPageRanks[j];
+          continue;
+        }
+        double share = localPageRanks[j] / graph.getOutDegree(j);
+        for (int k = 0; k < graph.getNumLinks(j); k++) {
+          int target = graph.getLink(j, k) / this.blockSize;
+          if (weights[target] == 0) {
+            linked[numLinked++] = target;
+          }
+          weights[target] += share;
+        }
+      }
+
+      for (int l = 0; l < numLinked; l++) {
+        if (numLinks == linkTargets.length) {
+          linkTargets = Arrays.copyOf(linkTargets, 2 * numLinks);
+          linkWeights = Arrays.copyOf(linkWeights, 2 * numLinks);
+        }
+        linkTargets[numLinks] = linked[l];
+        linkWeights[numLinks++] = weights[linked[l]];
+        weights[linked[l]] = 0;
+      }
+    }
+    linkOffsets[numBlocks] = numLinks;
+
+    double[] ranks = new double[numBlocks];
+    for (int b = 0; b < numBlocks; b++) {
+      ranks[b] = (double) (blockOffsets[b + 1] - blockOffsets[b]) / n;
+    }
+
+    double change;
+    do {
+      double[] newRanks = new double[numBlocks];
+      double sum = 0;
+      double danglingSum = 0;
+      for (int b = 0; b < numBlocks; b++) {
+        sum += ranks[b];
+        danglingSum += ranks[b] * danglingWeights[b];
+        for (int l = linkOffsets[b]; l < linkOffsets[b + 1]; l++) {
+          newRanks[linkTargets[l]] += ranks[b] * linkWeights[l];
+        }
+      }
+
+      for (int b = 0; b < numBlocks; b++) {
+        int size = blockOffsets[b + 1] - blockOffsets[b];
+        double dangling = 0;
+        if (n > 1) {
+          /* dangling documents link to all documents but themselves */
+          dangling = (danglingSum * size - ranks[b] * danglingWeights[b]) / (n - 1);
+        }
+        newRanks[b] = dampingFactor * (newRanks[b] + dangling) + (1 - dampingFactor) * sum * size / n;
+      }
+
+      change = ResidualNorm.MAX.distance(newRanks, ranks);
+      ranks = newRanks;
+    } while (change > LOCAL_EPSILON / numBlocks);
+
+    return ranks;
+  }
+
+  //Calculates the local PageRank of a range of blocks, considering only the links within each block. Documents
+  //without links within their block link to all documents of the block. The values of every block sum up to 1.
+  private class LocalPageRankTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final LinkGraph graph;
+    private final double dampingFactor;
+    private final int[] blockOffsets;
+    private final double[] localPageRanks;
+    private final int from;
+    private final int to;
+
+    LocalPageRankTask(LinkGraph graph, double dampingFactor, int[] blockOffsets, double[] localPageRanks, int from,
+        int to) {
+      this.graph = graph;
+      this.dampingFactor = dampingFactor;
+      this.blockOffsets = blockOffsets;
+      this.localPageRanks = localPageRanks;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from > 1
+          && this.blockOffsets[this.to] - this.blockOffsets[this.from] > PARALLEL_THRESHOLD) {
+        int middle = (this.from + this.to) >>> 1;
+        invokeAll(
+            new LocalPageRankTask(this.graph, this.dampingFactor, this.blockOffsets, this.localPageRanks, this.from,
+                middle),
+            new LocalPageRankTask(this.graph, this.dampingFactor, this.blockOffsets, this.localPageRanks, middle,
+                this.to));
+        return;
+      }
+
+      for (int b = this.from; b < this.to; b++) {
+        this.solveBlock(b);
+      }
+    }
+
+    //Calculates the local PageRank of the specified block by power iteration on a CSR adjacency of the links within
+    //the block, which is built once.
+    private void solveBlock(int b) {
+      int first = this.blockOffsets[b];
+      int size = this.blockOffsets[b + 1] - first;
+      if (size == 1) {
+        this.localPageRanks[first] = 1;
+        return;
+      }
+
+      int[] localOffsets = new int[size + 1];
+      int[] localTargets = new int[16];
+      int numLinks = 0;
+      for (int k = 0; k < size; k++) {
+        localOffsets[k] = numLinks;
+        for (int l = 0; l < this.graph.getNumLinks(first + k); l++) {
+          int target = this.graph.getLink(first + k, l);
+          if (target >= first && target < first + size) {
+            if (numLinks == localTargets.length) {
+              localTargets = Arrays.copyOf(localTargets, 2 * numLinks);
+            }
+            localTargets[numLinks++] = target - first;
+          }
+        }
+      }
+      localOffsets[size] = numLinks;
+
+      double[] ranks = new double[size];
+      Arrays.fill(ranks, 1.0d / size);
+      double change;
+      do {
+        double[] newRanks = new double[size];
+        double dangling = 0;
+        for (int k = 0; k < size; k++) {
+          int localDegree = localOffsets[k + 1] - localOffsets[k];
+          if (localDegree == 0) {
+            dangling += ranks[k];
+            continue;
+          }
+          double share = ranks[k] / localDegree;
+          for (int l = localOffsets[k]; l < localOffsets[k + 1]; l++) {
+            newRanks[localTargets[l]] += share;
+          }
+        }
+
+        for (int k = 0; k < size; k++) {
+          newRanks[k] = this.dampingFactor * (newRanks[k] + dangling / size) + (1 - this.dampingFactor) / size;
+        }
+        change = ResidualNorm.MAX.distance(newRanks, ranks);
+        ranks = newRanks;
+      } while (change > LOCAL_EPSILON / size);
+
+      for (int k = 0; k < size; k++) {
+        this.localPageRanks[first + k] = ranks[k];
+      }
+    }
+  }
+}
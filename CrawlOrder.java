@@ -0,0 +1,11 @@
+//This enum represents the orders, in which a Crawler follows the links and appends the found LinkedDocuments to the
+//result of a crawl.
+public enum CrawlOrder {
+  //the order of the recursive crawl: all documents reachable from a document come right after it, unless they have
+  //been found before
+  DEPTH_FIRST,
+
+  //the seeds first, then all documents they link to, then all documents those link to and so on; the depth of a
+  //document is the length of the shortest chain of links from a seed
+  BREADTH_FIRST;
+}
@@ -0,0 +1,58 @@
+//This class represents the statistics of a crawl: the size of the result and the time of its phases.
+public class CrawlStatistics {
+  private final int numDocuments;
+  private final int numLinks;
+  private final int maxDepth;
+  private final int numUnreadable;
+  private final long readTime;
+  private final long assemblyTime;
+
+  //Creates new statistics with the specified values.
+  public CrawlStatistics(int numDocuments, int numLinks, int maxDepth, int numUnreadable, long readTime,
+      long assemblyTime) {
+    this.numDocuments = numDocuments;
+    this.numLinks = numLinks;
+    this.maxDepth = maxDepth;
+    this.numUnreadable = numUnreadable;
+    this.readTime = readTime;
+    this.assemblyTime = assemblyTime;
+  }
+
+  //Returns the number of crawled documents.
+  public int getNumDocuments() {
+    return numDocuments;
+  }
+
+  //Returns the number of links between the crawled documents.
+  public int getNumLinks() {
+    return numLinks;
+  }
+
+  //Returns the largest depth of a crawled document, which is the length of the shortest chain of links between the
+  //crawled documents from a seed; the seeds have the depth 0.
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  //Returns the number of linked files, that could not be read.
+  public int getNumUnreadable() {
+    return numUnreadable;
+  }
+
+  //Returns the time, that the crawling thread spent waiting for files to be read and parsed, in nanoseconds.
+  public long getReadTime() {
+    return readTime;
+  }
+
+  //Returns the time spent ordering and linking the documents in nanoseconds.
+  public long getAssemblyTime() {
+    return assemblyTime;
+  }
+
+  //Returns a brief string representation of these statistics
+  public String toString() {
+    return numDocuments + " Dokumente, " + numLinks + " Links, Tiefe " + maxDepth + ", " + numUnreadable
+        + " nicht lesbar, Lesen " + (readTime / 1000000.0) + " ms, Zusammensetzen " + (assemblyTime / 1000000.0)
+        + " ms";
+  }
+}
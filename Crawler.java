@@ -0,0 +1,389 @@
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//This class crawls LinkedDocuments in parallel: starting from the documents of a LinkedDocumentCollection, every
+//linked file is read and parsed exactly once by a pool of threads. A file is submitted to the pool, as soon as the
+//first document linking to it has been taken by the calling thread, and the calling thread only waits for the file,
+//that it needs next; all other submitted files are read meanwhile, so there is no barrier, at which one slow file
+//holds up the pool.
+//The calling thread takes the documents in the specified CrawlOrder; for DEPTH_FIRST, it is the same order as the
+//one of the old recursive crawl. Both orders use an explicit stack or queue, so long chains of links cannot overflow
+//the thread stack, and the result is deterministic. The crawl can be limited to a maximum depth and a maximum number
+//of documents. The depth of a document is the length of the shortest chain of links from a seed, so the documents
+//are found breadth-first, before they are ordered depth-first, unless only the number of documents is limited: then
+//the files are read in depth-first order as the documents are appended, so no more files are read than the links
+//of the appended documents name.
+//The link graph of the result is built with the out-degrees of LinkGraph.createFromCollection: a document links to
+//every readable document named by its links once, except itself, including documents left out by the limits, whose
+//files are read for this as well. Only the links between documents of the result are links of the graph. The
+//outgoing links of every read document are set to the read instances in the same pass, so no file is read again;
+//the outgoing links of the seeds, which belong to the caller, are not changed.
+//The pool is either a work-stealing pool of platform threads or, if virtualThreads is set and the Java runtime
+//supports them, one virtual thread per document; then parallelism is not used.
+public class Crawler {
+  //the number of platform threads
+  private final int parallelism;
+
+  //true, if virtual threads should be used
+  private final boolean virtualThreads;
+
+  //the order of the result
+  private final CrawlOrder order;
+
+  //the limits of a crawl
+  private final int maxDepth;
+  private final int maxDocuments;
+
+  //the statistics of the last crawl
+  private CrawlStatistics statistics;
+
+  //Creates a new crawler without limits, which returns the documents in depth-first order. Values of parallelism
+  //smaller than 1 mean the number of available processors.
+  public Crawler(int parallelism, boolean virtualThreads) {
+    this(parallelism, virtualThreads, CrawlOrder.DEPTH_FIRST, -1, -1);
+  }
+
+  //Creates a new crawler, which returns the documents in the specified order. Documents deeper than maxDepth are left
+  //out, and the crawl stops after maxDocuments documents; negative values mean no limit.
+  public Crawler(int parallelism, boolean virtualThreads, CrawlOrder order, int maxDepth, int maxDocuments) {
+    if (parallelism < 1) {
+      parallelism = Runtime.getRuntime().availableProcessors();
+    }
+    this.parallelism = parallelism;
+    this.virtualThreads = virtualThreads;
+    this.order = order;
+    this.maxDepth = maxDepth < 0 ? Integer.MAX_VALUE : maxDepth;
+    this.maxDocuments = maxDocuments < 0 ? Integer.MAX_VALUE : maxDocuments;
+    this.statistics = new CrawlStatistics(0, 0, 0, 0, 0, 0);
+  }
+
+  //Returns the statistics of the last crawl.
+  public synchronized CrawlStatistics getStatistics() {
+    return this.statistics;
+  }
+
+  //Crawls the LinkedDocuments of the specified collection and all documents reachable from them by links and returns
+  //them as a new LinkedDocumentCollection.
+  public LinkedDocumentCollection crawl(LinkedDocumentCollection seeds) {
+    long startTime = System.nanoTime();
+    ExecutorService executor = this.newExecutor();
+    Frontier frontier = new Frontier(executor);
+    ArrayList<String> seedIDs = new ArrayList<>();
+    LinkedDocumentCollection result;
+    int numLinks;
+    try {
+      /* the seeds are registered first, so their IDs are never read from files */
+      for (int i = 0; i < seeds.numDocuments(); i++) {
+        LinkedDocument seed = (LinkedDocument) seeds.get(i);
+        if (frontier.claimed.add(seed.getID())) {
+          frontier.documents.put(seed.getID(), seed);
+          seedIDs.add(seed.getID());
+        }
+      }
+
+      if (this.order == CrawlOrder.BREADTH_FIRST) {
+        result = collect(frontier, this.readBreadthFirst(frontier, seedIDs, this.maxDocuments));
+      } else if (this.maxDocuments == Integer.MAX_VALUE || this.maxDepth < Integer.MAX_VALUE) {
+        this.readBreadthFirst(frontier, seedIDs, Integer.MAX_VALUE);
+        result = this.depthFirst(frontier, seedIDs, false);
+      } else {
+        result = this.depthFirst(frontier, seedIDs, true);
+      }
+      numLinks = setOutgoingLinks(result, frontier, new HashSet<>(seedIDs));
+    } finally {
+      frontier.cancel();
+      executor.shutdown();
+    }
+
+    int maxDepth = maxDepth(result, seedIDs);
+    long assemblyTime = System.nanoTime() - startTime - frontier.readTime;
+
+    synchronized (this) {
+      this.statistics = new CrawlStatistics(result.numDocuments(), numLinks, maxDepth, frontier.numUnreadable,
+          frontier.readTime, assemblyTime);
+    }
+    return result;
+  }
+
+  //Reads and parses the files with the specified IDs in parallel and returns the documents in the same order; the
+  //entries of files, that cannot be read, are null.
+  public LinkedDocument[] read(String[] ids) {
+    ExecutorService executor = this.newExecutor();
+    Frontier frontier = new Frontier(executor);
+    LinkedDocument[] documents = new LinkedDocument[ids.length];
+    try {
+      for (String id : ids) {
+        frontier.claim(id);
+      }
+      for (int k = 0; k < ids.length; k++) {
+        documents[k] = frontier.get(ids[k]);
+      }
+    } finally {
+      frontier.cancel();
+      executor.shutdown();
+    }
+    return documents;
+  }
+
+  //Takes the documents reachable from the specified seeds in breadth-first order, until the specified number of
+  //documents has been taken, and returns their IDs in this order. The links of every taken document up to maxDepth
+  //are claimed, so their files are read, while the documents before them are taken. The depth of every claimed
+  //document is recorded in the frontier.
+  private List<String> readBreadthFirst(Frontier frontier, List<String> seedIDs, int limit) {
+    ArrayList<String> taken = new ArrayList<>();
+    ArrayDeque<String> queue = new ArrayDeque<>(seedIDs);
+    for (String id : seedIDs) {
+      frontier.depths.put(id, 0);
+    }
+
+    while (!queue.isEmpty() && taken.size() < limit) {
+      String id = queue.poll();
+      LinkedDocument doc = frontier.get(id);
+      if (doc == null) {
+        continue;
+      }
+      taken.add(id);
+
+      int depth = frontier.depths.get(id);
+      if (depth < this.maxDepth) {
+        for (String target : doc.getOutgoingIDs()) {
+          if (frontier.claim(target)) {
+            frontier.depths.put(target, depth + 1);
+            queue.add(target);
+          }
+        }
+      }
+    }
+
+    return taken;
+  }
+
+  //Returns a collection of the read documents with the specified IDs in this order.
+  private static LinkedDocumentCollection collect(Frontier frontier, List<String> ids) {
+    LinkedDocumentCollection result = new LinkedDocumentCollection();
+    for (String id : ids) {
+      result.appendDocument(frontier.documents.get(id));
+    }
+    return result;
+  }
+
+  //Assembles the documents in depth-first order with an explicit stack: a document is appended, when it is taken
+  //from the stack, so the order is the one of the recursion. The links of a document are followed, if its depth
+  //recorded by readBreadthFirst is smaller than maxDepth. If readOnDemand is set, no depths are recorded, and the
+  //links of every appended document are claimed, so their files are read, while the documents above them on the
+  //stack are appended.
+  private LinkedDocumentCollection depthFirst(Frontier frontier, List<String> seedIDs, boolean readOnDemand) {
+    LinkedDocumentCollection result = new LinkedDocumentCollection();
+    HashSet<String> taken = new HashSet<>();
+    ArrayDeque<String> stack = new ArrayDeque<>();
+
+    for (String seedID : seedIDs) {
+      stack.push(seedID);
+
+      while (!stack.isEmpty() && result.numDocuments() < this.maxDocuments) {
+        String id = stack.pop();
+        if (!taken.add(id)) {
+          continue;
+        }
+        LinkedDocument doc = frontier.get(id);
+        if (doc == null) {
+          continue;
+        }
+        result.appendDocument(doc);
+
+        Integer depth = frontier.depths.get(id);
+        if (readOnDemand || depth < this.maxDepth) {
+          String[] ids = doc.getOutgoingIDs();
+          if (readOnDemand) {
+            for (String target : ids) {
+              frontier.claim(target);
+            }
+          }
+
+          for (int k = ids.length - 1; k >= 0; k--) {
+            if (!ids[k].equals(id) && !taken.contains(ids[k]) && frontier.claimed.contains(ids[k])) {
+              stack.push(ids[k]);
+            }
+          }
+        }
+      }
+    }
+
+    return result;
+  }
+
+  //Returns the largest depth of a document of the specified crawled collection: the length of the shortest chain of
+  //links between its documents from one of the seeds with the specified IDs.
+  private static int maxDepth(LinkedDocumentCollection collection, List<String> seedIDs) {
+    LinkGraph graph = collection.getLinkGraph();
+    int[] depths = new int[graph.numNodes()];
+    Arrays.fill(depths, -1);
+    ArrayDeque<Integer> queue = new ArrayDeque<>();
+    HashSet<String> seeds = new HashSet<>(seedIDs);
+    for (int i = 0; i < graph.numNodes(); i++) {
+      if (seeds.contains(graph.getID(i))) {
+        depths[i] = 0;
+        queue.add(i);
+      }
+    }
+
+    int maxDepth = 0;
+    while (!queue.isEmpty()) {
+      int node = queue.poll();
+      maxDepth = depths[node];
+      for (int k = 0; k < graph.getNumLinks(node); k++) {
+        int target = graph.getLink(node, k);
+        if (depths[target] < 0) {
+          depths[target] = depths[node] + 1;
+          queue.add(target);
+        }
+      }
+    }
+    return maxDepth;
+  }
+
+  //Sets the link graph of the specified collection with the out-degrees of LinkGraph.createFromCollection and the
+  //outgoing links of its documents except the seeds with the specified IDs to the documents, that they link to, in
+  //the order of their links. The files of linked documents, that have not been read, are read from the specified
+  //frontier. Returns the number of links between the documents of the collection.
+  private static int setOutgoingLinks(LinkedDocumentCollection collection, Frontier frontier, HashSet<String> seedIDs) {
+    int n = collection.numDocuments();
+    String[] ids = new String[n];
+    HashMap<String, Integer> indices = new HashMap<>();
+    for (int i = 0; i < n; i++) {
+      ids[i] = ((LinkedDocument) collection.get(i)).getID();
+      indices.put(ids[i], i);
+    }
+
+    /* all linked files are submitted first, so the ones left out by the limits are read in parallel */
+    for (int i = 0; i < n; i++) {
+      for (String id : ((LinkedDocument) collection.get(i)).getOutgoingIDs()) {
+        frontier.claim(id);
+      }
+    }
+
+    int[] offsets = new int[n + 1];
+    int[] outDegrees = new int[n];
+    int[] targets = new int[16];
+    int numLinks = 0;
+
+    for (int i = 0; i < n; i++) {
+      LinkedDocument doc = (LinkedDocument) collection.get(i);
+      LinkedDocumentCollection outgoingLinks = new LinkedDocumentCollection();
+      offsets[i] = numLinks;
+      for (String id : doc.getOutgoingIDs()) {
+        LinkedDocument linked = id.equals(ids[i]) ? null : frontier.get(id);
+        if (linked == null || outgoingLinks.contains(linked)) {
+          continue;
+        }
+        outgoingLinks.appendDocument(linked);
+
+        Integer target = indices.get(id);
+        if (target != null) {
+          if (numLinks == targets.length) {
+            targets = Arrays.copyOf(targets, 2 * numLinks);
+          }
+          targets[numLinks++] = target;
+        }
+      }
+      if (!seedIDs.contains(ids[i])) {
+        doc.setOutgoingLinks(outgoingLinks);
+      }
+      outDegrees[i] = outgoingLinks.numDocuments();
+    }
+    offsets[n] = numLinks;
+
+    collection.setLinkGraph(new LinkGraph(n, offsets, Arrays.copyOf(targets, numLinks), outDegrees, ids));
+    return numLinks;
+  }
+
+  //Creates the pool of threads reading the documents.
+  private ExecutorService newExecutor() {
+    if (this.virtualThreads) {
+      try {
+        Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        return (ExecutorService) factory.invoke(null);
+      } catch (ReflectiveOperationException e) {
+        /* virtual threads are not supported by this Java runtime, so platform threads are used */
+      }
+    }
+    return Executors.newWorkStealingPool(this.parallelism);
+  }
+
+  //The frontier of a crawl: the claimed IDs, the reads submitted to the pool, the documents read so far and their
+  //depths, together with the numbers needed for the statistics. It is only used by the calling thread; the pool only
+  //reads files.
+  private static class Frontier {
+    private final ExecutorService executor;
+    private final HashSet<String> claimed = new HashSet<>();
+    private final HashMap<String, Future<LinkedDocument>> reads = new HashMap<>();
+    private final HashMap<String, LinkedDocument> documents = new HashMap<>();
+    private final HashMap<String, Integer> depths = new HashMap<>();
+    private int numUnreadable = 0;
+    private long readTime = 0;
+
+    Frontier(ExecutorService executor) {
+      this.executor = executor;
+    }
+
+    //Submits the file with the specified ID to the pool, unless it has been claimed before, and returns true in this
+    //case.
+    boolean claim(String id) {
+      if (!this.claimed.add(id)) {
+        return false;
+      }
+      this.reads.put(id, this.executor.submit(() -> LinkedDocument.createLinkedDocumentFromFile(id)));
+      return true;
+    }
+
+    //Returns the document with the specified ID, waiting for its file to be read, or null, if it has not been
+    //claimed or cannot be read. The time waited is added to the read time. A RuntimeException thrown while reading
+    //the document is rethrown.
+    LinkedDocument get(String id) {
+      Future<LinkedDocument> read = this.reads.remove(id);
+      if (read == null) {
+        return this.documents.get(id);
+      }
+
+      long startTime = System.nanoTime();
+      LinkedDocument doc;
+      try {
+        doc = read.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Das Crawlen wurde unterbrochen.", e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw new IllegalStateException(e.getCause());
+      } finally {
+        this.readTime += System.nanoTime() - startTime;
+      }
+
+      if (doc == null) {
+        this.numUnreadable++;
+      } else {
+        this.documents.put(id, doc);
+      }
+      return doc;
+    }
+
+    //Cancels the reads, that have not been started yet and whose documents are not needed any more.
+    void cancel() {
+      for (Future<LinkedDocument> read : this.reads.values()) {
+        read.cancel(false);
+      }
+      this.reads.clear();
+    }
+  }
+}
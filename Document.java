@@ -16,6 +16,9 @@ public class Document {
   "lich", "ling", "logie", "los", "mal", "meter", "mut", "nis", "or", "sam", "schaft", "tum", "ung", "voll", "wert",
   "würdig", "ie" };
 
+  //the stemmer used for the words of all documents created afterwards; it cuts off the SUFFICES by default
+  private static volatile SuffixStemmer stemmer = new SuffixStemmer(SUFFICES);
+
   //the words of this document and their counts
   private WordCountsArray wordCounts;
 
@@ -32,6 +35,20 @@ public class Document {
     this.addContent(content);
   }
 
+  //Constructs a document with the given values, whose words and their counts are already known, e.g. because they
+  //have been stored before. The WordCountsArray is used as it is.
+  protected Document(String title, String language, String description, Date releaseDate, Author author,
+      WordCountsArray wordCounts) {
+    this.setTitle(title);
+    this.setLanguage(language);
+    this.setDescription(description);
+
+    this.releaseDate = releaseDate;
+    this.author = author;
+
+    this.wordCounts = wordCounts;
+  }
+
   //Returns the docTitleField of the document
   public String getTitle() {
     return title;
@@ -104,118 +121,54 @@ public class Document {
     this.author = author;
   }
 
-  //Splits the specified text into its single words.
-  private static String[] tokenize(String content) {
-    int wordCount = 0;
-
-    for (int i = 0; i < content.length(); i++) {
-      if (content.charAt(i) == ' ') {
-        wordCount++;
-      }
-    }
-
-    // there is always one word more than there are spaces
-    wordCount++;
-
-    // the resulting array
-    String[] words = new String[wordCount];
-
-    String word = "";
-    int wordIndex = 0;
-
-    for (int i = 0; i <= content.length(); i++) {
-      if (i == content.length() || content.charAt(i) == ' ') {
-        if (word.length() > 0) {
-          words[wordIndex] = word;
-          wordIndex++;
+  //Returns the stemmer used for the words of new documents.
+  public static SuffixStemmer getStemmer() {
+    return stemmer;
+  }
 
-          word = "";
-        }
-      } else {
-        word = word + content.charAt(i);
-      }
+  //Sets the stemmer used for the words of new documents, e.g. one created from another list of suffixes.
+  public static void setStemmer(SuffixStemmer stemmer) {
+    if (stemmer != null) {
+      Document.stemmer = stemmer;
     }
-
-    return words;
   }
 
+  //Adds the words of the specified text to the WordCountsArray of this document. Every token is reduced to its stem
+  //in the buffer of the Tokenizer and passed to the TermDictionary without creating a String.
   private void addContent(String content) {
-    String[] words = Document.tokenize(content);
-
-    this.wordCounts = new WordCountsArray(0);
-
-    for (int i = 0; i < words.length; i++) {
-      String word = words[i];
-
-      String suffix = Document.findSuffix(word);
-      word = Document.cutSuffix(word, suffix);
-
-      this.wordCounts.add(word, 1);
-    }
+    this.wordCounts = countWords(content, true);
   }
 
-  private static boolean sufficesEqual(String word1, String word2, int n) {
-    /* if n is too large, last n chars are not equal */
-    if (n > word1.length() || n > word2.length()) {
-      return false;
-    }
-
-    boolean isEqual = true;
-    int i = 0;
-
-    while (isEqual && i < n) {
-      if (word1.charAt(word1.length() - 1 - i) != word2.charAt(word2.length() - 1 - i)) {
-        isEqual = false;
-      }
-      i++;
-    }
-
-    return isEqual;
+  //Returns the words of the specified query and their counts, stemmed like the words of a document. Only words
+  //already known to the TermDictionary are counted: unknown words cannot match any document, and since they are only
+  //looked up, queries do not add words to the dictionary.
+  public static WordCountsArray createQueryWordCounts(String query) {
+    return countWords(query, false);
   }
 
-  private static String findSuffix(String word) {
-    if (word == null || word.equals("")) {
-      return null;
-    }
+  //Counts the stems of the words of the specified text. If addTerms is not set, words unknown to the TermDictionary
+  //are left out instead of being added to it.
+  private static WordCountsArray countWords(String content, boolean addTerms) {
+    WordCountsArray wordCounts = new WordCountsArray(0);
 
-    String suffix = "";
-    String suffixHit = "";
-    int i = 0;
+    TermDictionary dictionary = TermDictionary.getInstance();
+    SuffixStemmer stemmer = Document.stemmer;
+    Tokenizer tokenizer = new Tokenizer(content);
 
-    while (i < Document.SUFFICES.length) {
-      suffix = Document.SUFFICES[i];
+    while (tokenizer.next()) {
+      char[] buffer = tokenizer.getBuffer();
+      int start = tokenizer.getTokenStart();
+      int stemLength = stemmer.stemLength(buffer, start, tokenizer.getTokenLength());
 
-      if (sufficesEqual(word, suffix, suffix.length())) {
-        if (suffixHit.length() < suffix.length()) {
-          suffixHit = suffix;
-        }
+      /* a word consisting of a suffix only has an empty stem and is not counted */
+      if (stemLength > 0) {
+        int termID = addTerms ? dictionary.getID(buffer, start, stemLength)
+            : dictionary.lookup(buffer, start, stemLength);
+        wordCounts.addTerm(termID, 1);
       }
-
-      i++;
-    }
-    return suffixHit;
-  }
-
-  private static String cutSuffix(String word, String suffix) {
-    if (suffix == null || suffix.equals("")) {
-      return word;
-    }
-
-    if (word == null) {
-      return null;
-    }
-
-    if (!sufficesEqual(word, suffix, suffix.length())) {
-      return word;
-    }
-
-    String wordWithoutSuffix = "";
-
-    for (int i = 0; i < word.length() - suffix.length(); i++) {
-      wordWithoutSuffix = wordWithoutSuffix + word.charAt(i);
     }
 
-    return wordWithoutSuffix;
+    return wordCounts;
   }
 
   //Returns true, if this instance and the specified Document equal.
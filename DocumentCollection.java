@@ -1,19 +1,51 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 //This class represents a ordered collection of documents.
-public class DocumentCollection {
-  //the first element in the collection
-  private DocumentCollectionCell first;
+//The documents are stored in a growable array, so the access by index takes constant time, and the collection can be
+//traversed with a for-each loop or as a (parallel) Stream.
+public class DocumentCollection implements Iterable<Document> {
+  //the documents in this collection; only the first size entries are used
+  private Document[] documents;
+
+  //the similarity of every document calculated by the last call of match(String)
+  private double[] querySimilarities;
 
-  //the last element in the collection
-  private DocumentCollectionCell last;
+  //the slot of every document within the inverted index; only used, if the index has been built
+  private int[] indexSlots;
 
   //the number of elements in this collection
   private int size;
 
+  //the inverted index of the words of all documents in this collection; null until the first query needs it, so
+  //collections that are never queried (like the outgoing and incoming links of a LinkedDocument) hold no postings
+  private InvertedIndex index;
+
   //Constructs an empty collection
   public DocumentCollection() {
-    this.first = null;
-    this.last = null;
+    this.documents = new Document[8];
+    this.querySimilarities = new double[8];
+    this.indexSlots = new int[8];
     this.size = 0;
+    this.index = null;
+  }
+
+  //Makes sure, that the arrays can hold at least one more document.
+  private void ensureCapacity() {
+    if (this.size == this.documents.length) {
+      int newLength = this.documents.length * 2;
+      this.documents = Arrays.copyOf(this.documents, newLength);
+      this.querySimilarities = Arrays.copyOf(this.querySimilarities, newLength);
+      this.indexSlots = Arrays.copyOf(this.indexSlots, newLength);
+    }
   }
 
   //Inserts the specified Document at the beginning of the collection.
@@ -22,50 +54,47 @@ public class DocumentCollection {
       return;
     }
 
-    if (this.isEmpty()) {
-      this.first = new DocumentCollectionCell(doc, null);
-      this.last = first;
-    } else {
-      this.first = new DocumentCollectionCell(doc, first);
+    this.ensureCapacity();
+
+    /* move all documents one position to the back */
+    System.arraycopy(this.documents, 0, this.documents, 1, this.size);
+    System.arraycopy(this.querySimilarities, 0, this.querySimilarities, 1, this.size);
+    System.arraycopy(this.indexSlots, 0, this.indexSlots, 1, this.size);
+
+    this.documents[0] = doc;
+    this.querySimilarities[0] = 0;
+    if (this.index != null) {
+      this.indexSlots[0] = this.index.add(doc);
     }
-    
     size++;
   }
 
-   //Inserts the specified Document at the end of the collection.
+  //Inserts the specified Document at the end of the collection.
   public void appendDocument(Document doc) {
     if (doc == null) {
       return;
     }
 
-    if (this.isEmpty()) {
-      /* list empty, add as only element */
-      this.first = new DocumentCollectionCell(doc, null);
-      this.last = first;
-    } else {
-      last.setNext(new DocumentCollectionCell(doc, null));
-      last = last.getNext();
-    }
+    this.ensureCapacity();
 
+    this.documents[size] = doc;
+    this.querySimilarities[size] = 0;
+    if (this.index != null) {
+      this.indexSlots[size] = this.index.add(doc);
+    }
     size++;
   }
 
   //Returns the index in this collection of the specified Document
   public int indexOf(Document doc) {
-    if (doc == null || this.isEmpty()) {
+    if (doc == null) {
       return -1;
     }
 
-    DocumentCollectionCell tmp = this.first;
-    int index = 0;
-
-    while (tmp != null) {
-      if (tmp.getDocument().equals(doc)) {
-        return index;
+    for (int i = 0; i < this.size; i++) {
+      if (this.documents[i].equals(doc)) {
+        return i;
       }
-
-      tmp = tmp.getNext();
-      index++;
     }
 
     return -1;
@@ -82,102 +111,39 @@ public class DocumentCollection {
       return false;
     }
 
-    if (this.isEmpty()) {
-      return false;
+    if (this.index != null) {
+      this.index.remove(this.indexSlots[index]);
     }
 
-    /* remove first */
-    if (index == 0) {
-      this.removeFirstDocument();
-      return true;
-    }
-
-    /* remove last */
-    if (index == this.numDocuments() - 1) {
-      this.removeLastDocument();
-      return true;
-    }
+    /* move all following documents one position to the front */
+    int numMoved = this.size - index - 1;
+    System.arraycopy(this.documents, index + 1, this.documents, index, numMoved);
+    System.arraycopy(this.querySimilarities, index + 1, this.querySimilarities, index, numMoved);
+    System.arraycopy(this.indexSlots, index + 1, this.indexSlots, index, numMoved);
 
-    /* loop to index, keep track of previous */
-    DocumentCollectionCell actual = this.first.getNext();
-    DocumentCollectionCell prev = this.first;
-    int i = 1;
-
-    while (i < index) {
-      prev = actual;
-      actual = actual.getNext();
-      i++;
-    }
-
-    /* delete actual */
-    prev.setNext(actual.getNext());
     size--;
+    this.documents[size] = null;
     return true;
   }
 
   //Removes the last element from the collection.
   public void removeLastDocument() {
-    if (this.isEmpty()) {
-      return;
-    }
-
-    /* one element: clear list and return */
-    if (this.numDocuments() == 1) {
-      this.clear();
-      return;
-    }
-
-    /* navigate to the element before last */
-    DocumentCollectionCell newLast = this.first;
-    while (newLast.getNext() != this.last) {
-      newLast = newLast.getNext();
-    }
-
-    /* assign new last element */
-    newLast.setNext(null);
-    this.last = newLast;
-    size--;
+    this.remove(this.size - 1);
   }
 
   // Removes the first element from the collection.
   public void removeFirstDocument() {
-    if (this.isEmpty()) {
-      return;
-    }
-
-    /* one element: clear list and return */
-    if (this.numDocuments() == 1) {
-      this.clear();
-      return;
-    }
-
-    this.first = this.first.getNext();
-    size--;
+    this.remove(0);
   }
 
   //Returns the first element of the collection or null, if it is empty.
   public Document getFirstDocument() {
-    if (this.isEmpty()) {
-      return null;
-    }
-
-    return this.first.getDocument();
+    return this.get(0);
   }
 
   //Returns the last element of the collection or null, if it is empty.
   public Document getLastDocument() {
-    if (this.isEmpty()) {
-      return null;
-    }
-
-    return this.last.getDocument();
-  }
-
-  //Deletes all elements from the collection.
-  private void clear() {
-    this.first = null;
-    this.last = null;
-    this.size = 0;
+    return this.get(this.size - 1);
   }
 
   //Determines, whether this collection is empty.
@@ -196,26 +162,44 @@ public class DocumentCollection {
       return null;
     }
 
-    return getDocumentCollectionCell(index).getDocument();
+    return this.documents[index];
   }
 
-  //This method returns a WordCountsArray containing all words of all Documents in this collection.
-  private WordCountsArray allWords() {
-    DocumentCollectionCell tmp = this.first;
-    WordCountsArray allWords = new WordCountsArray(0);
+  //Returns an iterator over the Documents in this collection in their order.
+  @Override
+  public Iterator<Document> iterator() {
+    return new Iterator<Document>() {
+      private int next = 0;
 
-    while (tmp != null) {
-      Document doc = tmp.getDocument();
-      WordCountsArray wca = doc.getWordCounts();
+      @Override
+      public boolean hasNext() {
+        return this.next < size;
+      }
 
-      for (int i = 0; i < wca.size(); i++) {
-        allWords.add(wca.getWord(i), 0);
+      @Override
+      public Document next() {
+        if (this.next >= size) {
+          throw new NoSuchElementException();
+        }
+        return documents[this.next++];
       }
+    };
+  }
 
-      tmp = tmp.getNext();
-    }
+  //Returns a Spliterator over the Documents in this collection, that splits the underlying array in halves.
+  @Override
+  public Spliterator<Document> spliterator() {
+    return Spliterators.spliterator(this.documents, 0, this.size, Spliterator.ORDERED | Spliterator.NONNULL);
+  }
 
-    return allWords;
+  //Returns a sequential Stream of the Documents in this collection.
+  public Stream<Document> stream() {
+    return StreamSupport.stream(this.spliterator(), false);
+  }
+
+  //Returns a parallel Stream of the Documents in this collection.
+  public Stream<Document> parallelStream() {
+    return StreamSupport.stream(this.spliterator(), true);
   }
 
   //This method calculates the similarity between the specified query and all Documents in this DocumentCollection and 
@@ -229,107 +213,137 @@ public class DocumentCollection {
       return;
     }
 
-    /* add query to collection as document */
-    Document queryDocument = new Document("", "", "", null, null, searchQuery);
-    this.prependDocument(queryDocument);
+    double[] similarities = this.computeSimilarities(searchQuery);
+    System.arraycopy(similarities, 0, this.querySimilarities, 0, this.size);
+
+    this.sortBySimilarityDesc();
+  }
 
-    /* add every word to every document with count 0 */
-    this.addZeroWordsToDocuments();
+  //This method calculates the similarity between the specified query and all Documents in this DocumentCollection and
+  //returns the k most similar Documents, the most similar first, as an unmodifiable list. Unlike match(String), this
+  //collection is not changed at all, so any number of threads may match queries concurrently. The inverted index guards
+  //itself, but adding, removing or reordering Documents of this collection must not run concurrently with a query.
+  public List<SearchResult> match(String searchQuery, int k) {
+    List<SearchResult> results = new ArrayList<>();
 
-    /* sort all WordCountsArrays of all documents */
-    DocumentCollectionCell tmp = this.first;
-    while (tmp != null) {
-      tmp.getDocument().getWordCounts().sort();
-      tmp = tmp.getNext();
+    if (this.isEmpty() || searchQuery == null || searchQuery.equals("")) {
+      return Collections.unmodifiableList(results);
     }
 
-    /* calculate similarities with query document */
-    tmp = this.first.getNext();
-    while (tmp != null) {
-      WordCountsArray wca1 = tmp.getDocument().getWordCounts();
-      WordCountsArray wca2 = queryDocument.getWordCounts();
-      //tmp.setQuerySimilarity(wca1.computeSimilarity(wca2));
-      tmp.setQuerySimilarity(wca1.computeSimilarity(wca2, this));
-      tmp = tmp.getNext();
+    double[] similarities = this.computeSimilarities(searchQuery);
+    Document[] documents = this.toArray();
+
+    for (int i : selectBest(similarities, k)) {
+      results.add(new SearchResult(documents[i], similarities[i], 0, similarities[i]));
     }
 
-    /* remove the query we added in the beginning */
-    this.removeFirstDocument();
+    return Collections.unmodifiableList(results);
+  }
 
-    this.sortBySimilarityDesc();
+  //Returns all Documents in this collection ordered by their similarity with the specified query as an unmodifiable
+  //list, without changing this collection.
+  public List<SearchResult> query(String searchQuery) {
+    return this.match(searchQuery, this.numDocuments());
   }
 
-  //This private helper method swaps the docContentField of the two specified DocumentCollectionCells of this DocumentCollection.
-  private void swap(DocumentCollectionCell cell1, DocumentCollectionCell cell2) {
-    Document tmpDoc = cell1.getDocument();
-    double tmpSim = cell1.getQuerySimilarity();
+  //Calculates the similarity between the specified query and every Document in this collection by visiting the postings
+  //of the query words only. The result contains the similarity of the Document at every index of this collection.
+  //Query words are only looked up in the TermDictionary, so queries do not make it grow.
+  protected double[] computeSimilarities(String searchQuery) {
+    double[] slotSimilarities = this.getIndex().computeSimilarities(Document.createQueryWordCounts(searchQuery));
 
-    cell1.setDocument(cell2.getDocument());
-    cell1.setQuerySimilarity(cell2.getQuerySimilarity());
+    double[] similarities = new double[this.size];
+    for (int i = 0; i < this.size; i++) {
+      similarities[i] = slotSimilarities[this.indexSlots[i]];
+    }
 
-    cell2.setDocument(tmpDoc);
-    cell2.setQuerySimilarity(tmpSim);
+    return similarities;
+  }
+
+  //Returns the indices of the k largest of the specified values, the index of the largest value first.
+  //Equal values keep their relative order.
+  protected static int[] selectBest(double[] values, int k) {
+    TopKHeap heap = new TopKHeap(Math.min(k, values.length));
+    for (int i = 0; i < values.length; i++) {
+      heap.offer(i, values[i]);
+    }
+    return heap.toSortedArray();
   }
 
   //This method sorts the documents in this collection descending, according to their similarity.
   private void sortBySimilarityDesc() {
-    for (int pass = 1; pass < this.numDocuments(); pass++) {
+    this.reorder(selectBest(this.getQuerySimilarities(), this.numDocuments()));
+  }
 
-      DocumentCollectionCell actCell = this.first;
+  //Reorders the Documents in this collection in one pass: afterwards, the Document at index i is the Document, that was
+  //at index order[i] before. The specified array must contain every index of this collection exactly once.
+  protected void reorder(int[] order) {
+    if (order == null || order.length != this.numDocuments()) {
+      return;
+    }
 
-      for (int i = 0; i < this.numDocuments() - pass; i++) {
-        /* swap docContentField of cells, if cells are in wrong order */
-        if (actCell.getQuerySimilarity() < actCell.getNext().getQuerySimilarity()) {
-          swap(actCell, actCell.getNext());
-        }
+    Document[] newDocuments = new Document[this.documents.length];
+    double[] newSimilarities = new double[this.documents.length];
+    int[] newSlots = new int[this.documents.length];
 
-        actCell = actCell.getNext();
-      }
+    for (int i = 0; i < this.size; i++) {
+      newDocuments[i] = this.documents[order[i]];
+      newSimilarities[i] = this.querySimilarities[order[i]];
+      newSlots[i] = this.indexSlots[order[i]];
     }
-  }
 
-  //This method gets a set of all words of all Documents in this collection and 
-  //adds every word to every Document in this collection with count 0.
-  private void addZeroWordsToDocuments() {
-    WordCountsArray allWords = this.allWords();
+    this.documents = newDocuments;
+    this.querySimilarities = newSimilarities;
+    this.indexSlots = newSlots;
+  }
 
-    DocumentCollectionCell tmp = this.first;
+  //Renumbers the slots of the inverted index in the order of this collection, so the postings of every word list
+  //the Documents in the order of this collection and the Document at index i has the slot i.
+  //If the index has not been built yet, there is nothing to do, because it will be built in this order.
+  protected void renumberIndex() {
+    if (this.index == null) {
+      return;
+    }
 
-    while (tmp != null) {
-      for (int j = 0; j < allWords.size(); j++) {
-        String word = allWords.getWord(j);
+    int[] newSlots = new int[this.index.numSlots()];
+    Arrays.fill(newSlots, -1);
+    for (int i = 0; i < this.size; i++) {
+      newSlots[this.indexSlots[i]] = i;
+      this.indexSlots[i] = i;
+    }
+    this.index.renumber(newSlots);
+  }
 
-        tmp.getDocument().getWordCounts().add(word, 0);
+  //Returns the inverted index of this collection. It is built from all Documents in this collection on the first call
+  //and kept up to date by adding and removing Documents afterwards.
+  private synchronized InvertedIndex getIndex() {
+    if (this.index == null) {
+      InvertedIndex newIndex = new InvertedIndex();
+      for (int i = 0; i < this.size; i++) {
+        this.indexSlots[i] = newIndex.add(this.documents[i]);
       }
-
-      tmp = tmp.getNext();
+      this.index = newIndex;
     }
+    return this.index;
   }
 
-  //This method returns the similarity of the Document at the specified index
-  public double getQuerySimilarity(int index) {
-    if (index < 0 || index >= this.numDocuments()) {
-      return -1;
-    }
+  //Returns the Documents in this collection as an array.
+  protected Document[] toArray() {
+    return Arrays.copyOf(this.documents, this.size);
+  }
 
-    return this.getDocumentCollectionCell(index).getQuerySimilarity();
+  //Returns the similarities of all Documents in this collection calculated by the last call of match(String).
+  protected double[] getQuerySimilarities() {
+    return Arrays.copyOf(this.querySimilarities, this.size);
   }
 
-  //Returns the DocumentCollectionCell that is at the specified index in this DocumentCollection.
-  private DocumentCollectionCell getDocumentCollectionCell(int index) {
+  //This method returns the similarity of the Document at the specified index
+  public double getQuerySimilarity(int index) {
     if (index < 0 || index >= this.numDocuments()) {
-      return null;
-    }
-
-    DocumentCollectionCell tmp = this.first;
-
-    int i = 0;
-    while (i < index) {
-      tmp = tmp.getNext();
-      i++;
+      return -1;
     }
 
-    return tmp;
+    return this.querySimilarities[index];
   }
 
   //Returns a string representation of this DocumentCollection using the titles of the documents.
@@ -356,21 +370,18 @@ public class DocumentCollection {
       return 0;
     }
 
-    int count = 0;
-
-    /* loop over all documents and check if word is contained */
-    for (int i = 0; i < this.numDocuments(); i++) {
-      WordCountsArray wca = this.get(i).getWordCounts();
-
-      if (wca != null) {
-        int index = wca.getIndexOfWord(word);
+    return this.noOfDocumentsContainingTerm(TermDictionary.getInstance().lookup(word));
+  }
 
-        if (index != -1 && wca.getCount(index) > 0) {
-          count++;
-        }
-      }
-    }
+  //Returns the number of documents that contain the term with the specified ID. The document frequencies are
+  //maintained by the inverted index, so this is a constant time lookup.
+  public int noOfDocumentsContainingTerm(int termID) {
+    return this.getIndex().documentFrequency(termID);
+  }
 
-    return count;
+  //Returns the inverse document frequency log((n + 1) / df) of the term with the specified ID, where n is the number
+  //of documents in this collection and df the number of documents containing the term. Returns 0, if df is 0.
+  public double inverseDocumentFrequency(int termID) {
+    return this.getIndex().inverseDocumentFrequency(termID);
   }
 }
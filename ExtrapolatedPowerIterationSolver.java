@@ -0,0 +1,108 @@
+//This class calculates PageRank values by power iteration accelerated with quadratic extrapolation (Kamvar et al.):
+//every few iterations, the values are computed from the last four iterates x0, x1, x2 and x3 = M * x2 instead of x3
+//alone. Assuming, that the error of x0 lies in the span of the eigenvectors of the second and third largest
+//eigenvalues, x3 is fitted to x0, x1 and x2 by least squares, and x1, x2 and x3 are combined with the fitted
+//coefficients, which removes both error components. The earlier iterates are the values of the iterations before,
+//so an extrapolating iteration costs one step of power iteration like every other one. The extrapolated values are
+//scaled to the sum of x3.
+public class ExtrapolatedPowerIterationSolver extends IterativePageRankSolver {
+  //the number of iterations between two extrapolations
+  private final int interval;
+
+  //Creates a new solver with the specified stopping rule, that extrapolates every interval iterations.
+  public ExtrapolatedPowerIterationSolver(double epsilon, ResidualNorm norm, int interval) {
+    this(epsilon, norm, interval, DEFAULT_MAX_ITERATIONS);
+  }
+
+  //Creates a new solver with the specified stopping rule, that extrapolates every interval iterations and stops after
+  //maxIterations iterations.
+  public ExtrapolatedPowerIterationSolver(double epsilon, ResidualNorm norm, int interval, int maxIterations) {
+    super(epsilon, norm, maxIterations);
+    this.interval = Math.max(interval, 3);
+  }
+
+  @Override
+  protected double[] iterate(LinkGraph graph, double[][] previous, double[] pageRanks, double dampingFactor,
+      int iteration) {
+    double[] next = graph.pageRankStep(pageRanks, dampingFactor);
+    if (previous[1] == null || (iteration + 1) % this.interval != 0) {
+      return next;
+    }
+
+    double[] extrapolated = quadratic(previous[1], previous[0], pageRanks, next);
+    if (extrapolated == null) {
+      return next;
+    }
+
+    /* the extrapolation must not change the sum of the values */
+    double sum = 0;
+    double extrapolatedSum = 0;
+    for (int i = 0; i < next.length; i++) {
+      sum += next[i];
+      extrapolatedSum += extrapolated[i];
+    }
+    if (!(extrapolatedSum > 0) || Double.isInfinite(extrapolatedSum)) {
+      return next;
+    }
+    for (int i = 0; i < extrapolated.length; i++) {
+      extrapolated[i] *= sum / extrapolatedSum;
+    }
+    return extrapolated;
+  }
+
+  //Returns the quadratic extrapolation of the successive iterates x0, ..., x3 or null, if the differences are
+  //(almost) linearly dependent. With y1 = x1 - x0, y2 = x2 - x0 and y3 = x3 - x0, the coefficients g1, g2 minimize
+  //|g1 * y1 + g2 * y2 + y3|; they are computed with a Gram-Schmidt QR decomposition of (y1 y2), which is more exact
+  //than the normal equations, because y1 and y2 are almost parallel near convergence. The result is
+  //(g1 + g2 + 1) * x1 + (g2 + 1) * x2 + x3.
+  private static double[] quadratic(double[] x0, double[] x1, double[] x2, double[] x3) {
+    int n = x0.length;
+
+    /* r11 = |y1|, r12 = q1 * y2 and q1 * y3 with q1 = y1 / r11 */
+    double y1y1 = 0;
+    double y1y2 = 0;
+    double y1y3 = 0;
+    for (int i = 0; i < n; i++) {
+      double y1 = x1[i] - x0[i];
+      y1y1 += y1 * y1;
+      y1y2 += y1 * (x2[i] - x0[i]);
+      y1y3 += y1 * (x3[i] - x0[i]);
+    }
+    if (!(y1y1 > 0)) {
+      return null;
+    }
+    double r11 = Math.sqrt(y1y1);
+    double r12 = y1y2 / r11;
+    double z1 = y1y3 / r11;
+
+    /* v = y2 - r12 * q1, r22 = |v| and q2 * y3 with q2 = v / r22 */
+    double vv = 0;
+    double vy3 = 0;
+    double y2y2 = 0;
+    for (int i = 0; i < n; i++) {
+      double y1 = x1[i] - x0[i];
+      double y2 = x2[i] - x0[i];
+      double v = y2 - r12 * y1 / r11;
+      vv += v * v;
+      vy3 += v * (x3[i] - x0[i]);
+      y2y2 += y2 * y2;
+    }
+    if (!(vv > 1e-24 * y2y2)) {
+      return null;
+    }
+    double r22 = Math.sqrt(vv);
+    double z2 = vy3 / r22;
+
+    /* solve R * (g1, g2) = -(z1, z2) */
+    double g2 = -z2 / r22;
+    double g1 = (-z1 - r12 * g2) / r11;
+
+    double b0 = g1 + g2 + 1;
+    double b1 = g2 + 1;
+    double[] extrapolated = new double[n];
+    for (int i = 0; i < n; i++) {
+      extrapolated[i] = b0 * x1[i] + b1 * x2[i] + x3[i];
+    }
+    return extrapolated;
+  }
+}
@@ -0,0 +1,215 @@
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+//This class calculates hub and authority values with Kleinberg's HITS algorithm on a LinkGraph: in every iteration,
+//the authority of a document becomes the sum of the hub values of the documents linking to it and the hub value of a
+//document the sum of the authorities of the documents it links to; both vectors are normalized to length 1 after
+//every step. The iteration stops, when no value changes by more than epsilon any more or after maxIterations
+//iterations; the residual of the result tells, whether it has converged.
+//Both steps are sparse multiplications with the CSR adjacency of the graph (the incoming links for the authorities,
+//the outgoing links for the hubs) and are split into blocks of rows, which are calculated on a ForkJoinPool together
+//with the sum of squares needed for the normalization; the normalization is done in parallel as well. Every instance
+//keeps its pool for all of its calculations; its threads end, when they have been idle for a while.
+//In the query-dependent mode, HITS only runs on the base set of a set of root documents (usually the best matches of
+//a query): the roots, the documents they link to and up to maxIncoming documents linking to every root.
+public class HITS {
+  //the number of documents, below which a block of rows is not split any further
+  private static final int BLOCK_SIZE = 2048;
+
+  //the maximum number of iterations, if none is specified
+  public static final int DEFAULT_MAX_ITERATIONS = 1000;
+
+  //the iteration stops, when no value changes by more than epsilon
+  private final double epsilon;
+
+  //the iteration stops after this number of iterations, even if it has not converged
+  private final int maxIterations;
+
+  //the maximum number of documents linking to a root, that are added to the base set
+  private final int maxIncoming;
+
+  //the pool calculating the blocks of rows
+  private final ForkJoinPool pool;
+
+  //Creates a new instance using the specified number of threads, that stops after DEFAULT_MAX_ITERATIONS iterations.
+  //Values of parallelism smaller than 1 mean the number of available processors.
+  public HITS(double epsilon, int maxIncoming, int parallelism) {
+    this(epsilon, maxIncoming, DEFAULT_MAX_ITERATIONS, parallelism);
+  }
+
+  //Creates a new instance using the specified number of threads, that stops after maxIterations iterations. Values
+  //of parallelism smaller than 1 mean the number of available processors.
+  public HITS(double epsilon, int maxIncoming, int maxIterations, int parallelism) {
+    if (parallelism < 1) {
+      parallelism = Runtime.getRuntime().availableProcessors();
+    }
+    this.epsilon = epsilon;
+    this.maxIncoming = Math.max(maxIncoming, 0);
+    this.maxIterations = Math.max(maxIterations, 1);
+    this.pool = new ForkJoinPool(parallelism);
+  }
+
+  //Calculates the hub and authority values of all documents of the specified graph.
+  public HitsResult compute(LinkGraph graph) {
+    long startTime = System.nanoTime();
+    int n = graph.numNodes();
+    double[] hubs = new double[n];
+    double[] authorities = new double[n];
+    if (n == 0) {
+      return new HitsResult(hubs, authorities, 0, 0, System.nanoTime() - startTime);
+    }
+
+    Arrays.fill(hubs, 1 / Math.sqrt(n));
+    double[] newHubs = new double[n];
+    double[] newAuthorities = new double[n];
+    int iterations = 0;
+    double maxChange;
+
+    do {
+      double squares = this.pool.invoke(new MultiplyTask(graph, true, hubs, newAuthorities, 0, n));
+      maxChange = this.pool.invoke(new NormalizeTask(newAuthorities, authorities, squares, 0, n));
+      squares = this.pool.invoke(new MultiplyTask(graph, false, newAuthorities, newHubs, 0, n));
+      maxChange = Math.max(maxChange, this.pool.invoke(new NormalizeTask(newHubs, hubs, squares, 0, n)));
+
+      double[] tmp = authorities;
+      authorities = newAuthorities;
+      newAuthorities = tmp;
+      tmp = hubs;
+      hubs = newHubs;
+      newHubs = tmp;
+      iterations++;
+    } while (maxChange > this.epsilon && iterations < this.maxIterations);
+
+    return new HitsResult(hubs, authorities, iterations, maxChange, System.nanoTime() - startTime);
+  }
+
+  //Calculates the hub and authority values on the base set of the specified root documents. The returned values have
+  //an entry for every document of the graph; documents outside of the base set get 0.
+  public HitsResult compute(LinkGraph graph, int[] roots) {
+    long startTime = System.nanoTime();
+    int[] baseSet = this.baseSet(graph, roots);
+    HitsResult local = this.compute(graph.subgraph(baseSet));
+
+    double[] localHubs = local.getHubs();
+    double[] localAuthorities = local.getAuthorities();
+    double[] hubs = new double[graph.numNodes()];
+    double[] authorities = new double[graph.numNodes()];
+    for (int k = 0; k < baseSet.length; k++) {
+      hubs[baseSet[k]] = localHubs[k];
+      authorities[baseSet[k]] = localAuthorities[k];
+    }
+
+    return new HitsResult(hubs, authorities, local.getNumIterations(), local.getResidual(),
+        System.nanoTime() - startTime);
+  }
+
+  //Returns the base set of the specified roots: the roots, the documents they link to and the first maxIncoming
+  //documents linking to every root, in this order and without duplicates. Roots outside of the graph are ignored.
+  private int[] baseSet(LinkGraph graph, int[] roots) {
+    LinkedHashSet<Integer> baseSet = new LinkedHashSet<>();
+    for (int root : roots) {
+      if (root >= 0 && root < graph.numNodes()) {
+        baseSet.add(root);
+      }
+    }
+
+    Integer[] validRoots = baseSet.toArray(new Integer[0]);
+    for (int root : validRoots) {
+      for (int k = 0; k < graph.getNumLinks(root); k++) {
+        baseSet.add(graph.getLink(root, k));
+      }
+      int[] incoming = graph.getIncomingLinks(root);
+      for (int k = 0; k < Math.min(incoming.length, this.maxIncoming); k++) {
+        baseSet.add(incoming[k]);
+      }
+    }
+
+    int[] result = new int[baseSet.size()];
+    int k = 0;
+    for (int node : baseSet) {
+      result[k++] = node;
+    }
+    return result;
+  }
+
+  //Calculates a range of rows of the authority step (authorities = true) or of the hub step and returns the sum of
+  //the squares of the calculated values.
+  private static class MultiplyTask extends RecursiveTask<Double> {
+    private static final long serialVersionUID = 1L;
+
+    private final LinkGraph graph;
+    private final boolean authorities;
+    private final double[] values;
+    private final double[] result;
+    private final int from;
+    private final int to;
+
+    MultiplyTask(LinkGraph graph, boolean authorities, double[] values, double[] result, int from, int to) {
+      this.graph = graph;
+      this.authorities = authorities;
+      this.values = values;
+      this.result = result;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Double compute() {
+      if (this.to - this.from > BLOCK_SIZE) {
+        int middle = (this.from + this.to) >>> 1;
+        MultiplyTask left = new MultiplyTask(this.graph, this.authorities, this.values, this.result, this.from,
+            middle);
+        left.fork();
+        double right = new MultiplyTask(this.graph, this.authorities, this.values, this.result, middle, this.to)
+            .compute();
+        return left.join() + right;
+      }
+
+      if (this.authorities) {
+        return this.graph.authorityRows(this.values, this.result, this.from, this.to);
+      }
+      return this.graph.hubRows(this.values, this.result, this.from, this.to);
+    }
+  }
+
+  //Divides a range of values by the square root of the specified sum of squares and returns the maximum change
+  //compared to the old values. If all values are 0, they stay 0.
+  private static class NormalizeTask extends RecursiveTask<Double> {
+    private static final long serialVersionUID = 1L;
+
+    private final double[] values;
+    private final double[] oldValues;
+    private final double squares;
+    private final int from;
+    private final int to;
+
+    NormalizeTask(double[] values, double[] oldValues, double squares, int from, int to) {
+      this.values = values;
+      this.oldValues = oldValues;
+      this.squares = squares;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Double compute() {
+      if (this.to - this.from > BLOCK_SIZE) {
+        int middle = (this.from + this.to) >>> 1;
+        NormalizeTask left = new NormalizeTask(this.values, this.oldValues, this.squares, this.from, middle);
+        left.fork();
+        double right = new NormalizeTask(this.values, this.oldValues, this.squares, middle, this.to).compute();
+        return Math.max(left.join(), right);
+      }
+
+      double scale = this.squares > 0 ? 1 / Math.sqrt(this.squares) : 0;
+      double maxChange = 0;
+      for (int i = this.from; i < this.to; i++) {
+        this.values[i] *= scale;
+        maxChange = Math.max(maxChange, Math.abs(this.values[i] - this.oldValues[i]));
+      }
+      return maxChange;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+//This class represents the result of HITS: the hub and authority values of the documents and how they were
+//calculated.
+public class HitsResult {
+  private final double[] hubs;
+  private final double[] authorities;
+  private final int numIterations;
+  private final double residual;
+  private final long wallTime;
+
+  //Creates a new result with the specified values. residual is the change of the values in the last iteration.
+  public HitsResult(double[] hubs, double[] authorities, int numIterations, double residual, long wallTime) {
+    this.hubs = hubs;
+    this.authorities = authorities;
+    this.numIterations = numIterations;
+    this.residual = residual;
+    this.wallTime = wallTime;
+  }
+
+  //Returns the hub values; a good hub links to many good authorities.
+  public double[] getHubs() {
+    return hubs.clone();
+  }
+
+  //Returns the authority values; a good authority is linked by many good hubs.
+  public double[] getAuthorities() {
+    return authorities.clone();
+  }
+
+  //Returns the number of iterations needed.
+  public int getNumIterations() {
+    return numIterations;
+  }
+
+  //Returns the largest change of a value in the last iteration or 0, if there was no iteration.
+  public double getResidual() {
+    return residual;
+  }
+
+  //Returns the time the calculation took in nanoseconds.
+  public long getWallTime() {
+    return wallTime;
+  }
+
+  //Returns a brief string representation of this result
+  public String toString() {
+    return numIterations + " Iterationen, Residuum " + residual + ", " + (wallTime / 1000000.0) + " ms";
+  }
+}
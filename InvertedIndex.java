@@ -0,0 +1,395 @@
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//This class represents an inverted index, that maps every term ID of the TermDictionary to the postings of the
+//documents containing the term. Every indexed document occupies a slot; the postings refer to documents by their slot.
+//Besides the counts, the postings store the normalized TF-IDF weights of the documents (a sparse vector per document,
+//stored term by term). The weights are recomputed lazily, when the index has changed since they were computed.
+//All methods are guarded by one read-write lock: any number of threads may compute similarities concurrently, while
+//adding, removing or renumbering documents and recomputing the weights take the lock exclusively.
+public class InvertedIndex {
+
+  //the postings of a single word: the slots of the documents containing the word, its count there and
+  //its normalized weight there
+  private static class Postings {
+    private int[] slots = new int[1];
+    private int[] counts = new int[1];
+    private double[] weights = new double[1];
+    private int size = 0;
+
+    //Adds the specified slot with the specified count to these postings.
+    private void add(int slot, int count) {
+      if (size == slots.length) {
+        slots = Arrays.copyOf(slots, size * 2);
+        counts = Arrays.copyOf(counts, size * 2);
+        weights = Arrays.copyOf(weights, size * 2);
+      }
+      slots[size] = slot;
+      counts[size] = count;
+      size++;
+    }
+
+    //Removes the specified slot from these postings. The order of the postings is not preserved.
+    private void remove(int slot) {
+      for (int i = 0; i < size; i++) {
+        if (slots[i] == slot) {
+          size--;
+          slots[i] = slots[size];
+          counts[i] = counts[size];
+          weights[i] = weights[size];
+          return;
+        }
+      }
+    }
+
+    //Sorts these postings ascending by slot.
+    private void sortBySlot() {
+      long[] keys = new long[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = ((long) slots[i] << 32) | i;
+      }
+      Arrays.sort(keys);
+
+      int[] newCounts = new int[slots.length];
+      double[] newWeights = new double[slots.length];
+      for (int i = 0; i < size; i++) {
+        int j = (int) keys[i];
+        slots[i] = (int) (keys[i] >>> 32);
+        newCounts[i] = counts[j];
+        newWeights[i] = weights[j];
+      }
+      counts = newCounts;
+      weights = newWeights;
+    }
+  }
+
+  //the postings of every term, indexed by term ID; null if no document contains the term
+  private Postings[] postings;
+
+  //the document in every slot, null for unused slots
+  private Document[] documents;
+
+  //the slots that have been used before, but are free now
+  private int[] freeSlots;
+  private int numFreeSlots;
+
+  //the number of slots that have been used so far
+  private int numSlots;
+
+  //the euclidean norm of the TF-IDF weights of the document in every slot
+  private double[] norms;
+
+  //true, if the normalized weights and the norms are up to date
+  private boolean weightsValid;
+
+  //the lock guarding all fields of this index
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  //Constructs an empty index.
+  public InvertedIndex() {
+    this.postings = new Postings[16];
+    this.documents = new Document[1];
+    this.freeSlots = new int[1];
+    this.numFreeSlots = 0;
+    this.numSlots = 0;
+    this.norms = new double[1];
+    this.weightsValid = true;
+  }
+
+  //Adds the words of the specified Document to this index and returns the slot of the document.
+  public int add(Document doc) {
+    lock.writeLock().lock();
+    try {
+      return addDocument(doc);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  //Adds the specified Document to this index; the caller must hold the write lock.
+  private int addDocument(Document doc) {
+    int slot;
+    if (numFreeSlots > 0) {
+      numFreeSlots--;
+      slot = freeSlots[numFreeSlots];
+    } else {
+      if (numSlots == documents.length) {
+        documents = Arrays.copyOf(documents, numSlots * 2);
+      }
+      slot = numSlots;
+      numSlots++;
+    }
+    documents[slot] = doc;
+    weightsValid = false;
+
+    WordCountsArray wca = doc.getWordCounts();
+    for (int i = 0; i < wca.size(); i++) {
+      /* words with count 0 (e.g. links) are not contained in the document */
+      if (wca.getCount(i) > 0) {
+        int termID = wca.getTermID(i);
+        if (termID >= postings.length) {
+          postings = Arrays.copyOf(postings, Math.max(termID + 1, postings.length * 2));
+        }
+        if (postings[termID] == null) {
+          postings[termID] = new Postings();
+        }
+        postings[termID].add(slot, wca.getCount(i));
+      }
+    }
+
+    return slot;
+  }
+
+  //Removes the document in the specified slot from this index.
+  public void remove(int slot) {
+    lock.writeLock().lock();
+    try {
+      removeDocument(slot);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  //Removes the document in the specified slot from this index; the caller must hold the write lock.
+  private void removeDocument(int slot) {
+    if (slot < 0 || slot >= numSlots || documents[slot] == null) {
+      return;
+    }
+
+    WordCountsArray wca = documents[slot].getWordCounts();
+    for (int i = 0; i < wca.size(); i++) {
+      Postings p = getPostings(wca.getTermID(i));
+      if (p != null) {
+        p.remove(slot);
+        if (p.size == 0) {
+          postings[wca.getTermID(i)] = null;
+        }
+      }
+    }
+
+    documents[slot] = null;
+    weightsValid = false;
+    if (numFreeSlots == freeSlots.length) {
+      freeSlots = Arrays.copyOf(freeSlots, numFreeSlots * 2);
+    }
+    freeSlots[numFreeSlots] = slot;
+    numFreeSlots++;
+  }
+
+  //Renumbers the slots: the document in slot s moves to slot newSlots[s]. The new slots of the documents must be
+  //distinct and smaller than numDocuments(), so the free slots are dropped. Afterwards, the postings of every term are
+  //sorted by slot, so the scores are written in ascending order of the slots by computeSimilarities.
+  public void renumber(int[] newSlots) {
+    lock.writeLock().lock();
+    try {
+      renumberSlots(newSlots);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  //Renumbers the slots as described above; the caller must hold the write lock.
+  private void renumberSlots(int[] newSlots) {
+    int n = numSlots - numFreeSlots;
+    Document[] newDocuments = new Document[Math.max(n, 1)];
+    double[] newNorms = new double[Math.max(n, 1)];
+    for (int slot = 0; slot < numSlots; slot++) {
+      if (documents[slot] != null) {
+        newDocuments[newSlots[slot]] = documents[slot];
+        newNorms[newSlots[slot]] = slot < norms.length ? norms[slot] : 0;
+      }
+    }
+
+    for (int termID = 0; termID < postings.length; termID++) {
+      Postings p = postings[termID];
+      if (p != null) {
+        for (int j = 0; j < p.size; j++) {
+          p.slots[j] = newSlots[p.slots[j]];
+        }
+        p.sortBySlot();
+      }
+    }
+
+    documents = newDocuments;
+    norms = newNorms;
+    numSlots = n;
+    numFreeSlots = 0;
+  }
+
+  //Returns the number of documents in this index.
+  public int numDocuments() {
+    lock.readLock().lock();
+    try {
+      return numSlots - numFreeSlots;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  //Returns the number of slots; every slot returned by add() is smaller than this number.
+  public int numSlots() {
+    lock.readLock().lock();
+    try {
+      return numSlots;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  //Returns the postings of the term with the specified ID or null, if no document contains the term.
+  private Postings getPostings(int termID) {
+    if (termID < 0 || termID >= postings.length) {
+      return null;
+    }
+    return postings[termID];
+  }
+
+  //Returns the number of indexed documents containing the term with the specified ID.
+  public int documentFrequency(int termID) {
+    lock.readLock().lock();
+    try {
+      return df(termID);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  //Returns the inverse document frequency of the term with the specified ID or 0, if no document contains the term.
+  public double inverseDocumentFrequency(int termID) {
+    lock.readLock().lock();
+    try {
+      return idf(termID);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  //Returns the document frequency of the specified term; the caller must hold the lock.
+  private int df(int termID) {
+    Postings p = getPostings(termID);
+    return p == null ? 0 : p.size;
+  }
+
+  //Returns the inverse document frequency of the specified term; the caller must hold the lock.
+  private double idf(int termID) {
+    int df = df(termID);
+    if (df == 0) {
+      return 0;
+    }
+    return Math.log((numSlots - numFreeSlots + 1) / (double) df);
+  }
+
+  //Returns the euclidean norm of the TF-IDF weights of the document in the specified slot.
+  public double getNorm(int slot) {
+    lockWithValidWeights();
+    try {
+      if (slot < 0 || slot >= numSlots || documents[slot] == null) {
+        return 0;
+      }
+      return norms[slot];
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  //Acquires the read lock and makes sure, that the weights are up to date while it is held. If they are not, the
+  //write lock is taken to recompute them and downgraded to the read lock afterwards.
+  private void lockWithValidWeights() {
+    lock.readLock().lock();
+    while (!weightsValid) {
+      lock.readLock().unlock();
+      lock.writeLock().lock();
+      try {
+        updateWeights();
+        lock.readLock().lock();
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  //Recomputes the norms of all documents and the normalized weights in all postings, if the index has changed
+  //since they were computed. Every document frequency and therefore every weight depends on the whole collection.
+  //The caller must hold the write lock.
+  private void updateWeights() {
+    if (weightsValid) {
+      return;
+    }
+
+    if (norms.length < numSlots) {
+      norms = new double[documents.length];
+    }
+
+    for (int slot = 0; slot < numSlots; slot++) {
+      norms[slot] = documents[slot] == null ? 0 : documentNorm(documents[slot]);
+    }
+
+    for (int termID = 0; termID < postings.length; termID++) {
+      Postings p = postings[termID];
+      if (p != null) {
+        double idf = idf(termID);
+        for (int j = 0; j < p.size; j++) {
+          double norm = norms[p.slots[j]];
+          p.weights[j] = norm > 0 ? p.counts[j] * idf / norm : 0;
+        }
+      }
+    }
+
+    weightsValid = true;
+  }
+
+  //Calculates the cosine similarity of the weighted words of the specified query and every indexed document as the
+  //sparse scalar product of the normalized weights. Only the postings of the query words are visited.
+  //The result contains the similarity for every slot.
+  public double[] computeSimilarities(WordCountsArray query) {
+    lockWithValidWeights();
+    try {
+      return scoreSlots(query);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  //Calculates the similarities as described above; the caller must hold the lock and the weights must be valid.
+  private double[] scoreSlots(WordCountsArray query) {
+    double[] scores = new double[numSlots];
+
+    double queryNorm = 0;
+    for (int i = 0; i < query.size(); i++) {
+      if (query.getCount(i) > 0) {
+        double queryWeight = query.getCount(i) * idf(query.getTermID(i));
+        queryNorm += queryWeight * queryWeight;
+      }
+    }
+
+    if (queryNorm == 0) {
+      return scores;
+    }
+    queryNorm = Math.sqrt(queryNorm);
+
+    for (int i = 0; i < query.size(); i++) {
+      Postings p = getPostings(query.getTermID(i));
+      if (p == null || query.getCount(i) <= 0) {
+        continue;
+      }
+
+      double queryWeight = query.getCount(i) * idf(query.getTermID(i)) / queryNorm;
+      for (int j = 0; j < p.size; j++) {
+        scores[p.slots[j]] += queryWeight * p.weights[j];
+      }
+    }
+
+    return scores;
+  }
+
+  //Calculates the euclidean norm of the weighted words of the specified document.
+  private double documentNorm(Document doc) {
+    WordCountsArray wca = doc.getWordCounts();
+    double norm = 0;
+    for (int i = 0; i < wca.size(); i++) {
+      double weight = wca.getCount(i) * idf(wca.getTermID(i));
+      norm += weight * weight;
+    }
+    return Math.sqrt(norm);
+  }
+}
@@ -0,0 +1,83 @@
+import java.util.Arrays;
+
+//This class is the base of PageRankSolvers, that improve the PageRank values step by step, until they change by no
+//more than epsilon in the chosen norm or maxIterations iterations have been done. It records the change of every
+//iteration and the time of the calculation; the residual of the result tells, whether it has converged.
+//Every iteration must cost one multiplication with the matrix (one pass over all links), so the numbers of iterations
+//of different solvers are comparable.
+public abstract class IterativePageRankSolver implements PageRankSolver {
+  //the maximum number of iterations, if none is specified
+  public static final int DEFAULT_MAX_ITERATIONS = 1000;
+
+  //the number of values before the last iteration, that are passed to iterate
+  private static final int HISTORY = 2;
+
+  //the iteration stops, when the values change by no more than epsilon
+  private final double epsilon;
+
+  //the norm, in which the change is measured
+  private final ResidualNorm norm;
+
+  //the iteration stops after this number of iterations, even if it has not converged
+  private final int maxIterations;
+
+  //Creates a new solver with the specified stopping rule, that stops after DEFAULT_MAX_ITERATIONS iterations.
+  public IterativePageRankSolver(double epsilon, ResidualNorm norm) {
+    this(epsilon, norm, DEFAULT_MAX_ITERATIONS);
+  }
+
+  //Creates a new solver with the specified stopping rule, that stops after maxIterations iterations.
+  public IterativePageRankSolver(double epsilon, ResidualNorm norm, int maxIterations) {
+    this.epsilon = epsilon;
+    this.norm = norm;
+    this.maxIterations = Math.max(maxIterations, 1);
+  }
+
+  //Returns the epsilon of the stopping rule.
+  public double getEpsilon() {
+    return this.epsilon;
+  }
+
+  //Returns the norm of the stopping rule.
+  public ResidualNorm getNorm() {
+    return this.norm;
+  }
+
+  //Returns the maximum number of iterations.
+  public int getMaxIterations() {
+    return this.maxIterations;
+  }
+
+  //Calculates the PageRank values by calling iterate, until the stopping rule is met.
+  public PageRankResult solve(LinkGraph graph, double dampingFactor, double[] start) {
+    long startTime = System.nanoTime();
+
+    double[] pageRanks = start.clone();
+    double[][] previous = new double[HISTORY][];
+    double[] residuals = new double[16];
+    int iterations = 0;
+
+    double residual;
+    do {
+      double[] newPageRanks = this.iterate(graph, previous, pageRanks, dampingFactor, iterations);
+      residual = this.norm.distance(newPageRanks, pageRanks);
+      System.arraycopy(previous, 0, previous, 1, HISTORY - 1);
+      previous[0] = pageRanks;
+      pageRanks = newPageRanks;
+
+      if (iterations == residuals.length) {
+        residuals = Arrays.copyOf(residuals, 2 * iterations);
+      }
+      residuals[iterations++] = residual;
+    } while (residual > this.epsilon && iterations < this.maxIterations);
+
+    return new PageRankResult(pageRanks, iterations, Arrays.copyOf(residuals, iterations),
+        System.nanoTime() - startTime);
+  }
+
+  //Calculates the next values from the specified ones with one multiplication with the matrix. previous contains the
+  //values before the last iterations, the most recent first, and null, where there was no such iteration yet; neither
+  //pageRanks nor previous must be changed. iteration is the number of the iteration, starting with 0.
+  protected abstract double[] iterate(LinkGraph graph, double[][] previous, double[] pageRanks,
+      double dampingFactor, int iteration);
+}
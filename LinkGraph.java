@@ -0,0 +1,875 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+
+//This class represents the links between the documents of a LinkedDocumentCollection as a compressed sparse row (CSR)
+//adjacency. The documents are numbered by their index in the collection; the outgoing links of document i lead to the
+//documents targets[offsets[i]], ..., targets[offsets[i + 1] - 1]. The memory needed is linear in the number of links.
+//The int arrays are held as IntBuffers, which wrap arrays on the heap for graphs built in memory.
+//
+//A graph can be stored in a file together with the IDs of the documents (see writeToFile). The file consists of the
+//int arrays of the graph and a table of the IDs. A graph read back from a file serves its links directly from views
+//of the mapped file, so only the pages actually used are loaded by the operating system and the adjacency does not
+//take any heap; the IDs stay in the mapped file as well and are only decoded, when they are asked for.
+public class LinkGraph {
+  //the first int of a graph file and the version of its format
+  private static final int FILE_MAGIC = 0x4C4E4B47;
+  private static final int FILE_VERSION = 1;
+
+  //the size of the header of a graph file in bytes
+  private static final int FILE_HEADER_SIZE = 24;
+
+  //the maximum number of bytes mapped at once
+  private static final int MAP_CHUNK_SIZE = 1 << 30;
+
+  private final int numNodes;
+  private final IntBuffer offsets;
+  private final IntBuffer targets;
+
+  //the number of outgoing links of every document, including links to documents outside of the collection
+  private final IntBuffer outDegrees;
+
+  //the incoming links as CSR adjacency: the documents linking to document i are
+  //sources[incomingOffsets[i]], ..., sources[incomingOffsets[i + 1] - 1]. They are built on first use; sources is
+  //assigned last and volatile, so a thread seeing it also sees incomingOffsets.
+  private IntBuffer incomingOffsets;
+  private volatile IntBuffer sources;
+
+  //the ID of every document, or null, if the IDs are not known or still in the file; then the ID of document i are
+  //the bytes idOffsets[i], ..., idOffsets[i + 1] - 1 of idTable, encoded in UTF-8.
+  private final String[] ids;
+  private final ByteBuffer idTable;
+  private final IntBuffer idOffsets;
+
+  //Creates a new graph from the specified CSR arrays. offsets must have numNodes + 1 entries.
+  public LinkGraph(int numNodes, int[] offsets, int[] targets, int[] outDegrees) {
+    this(numNodes, offsets, targets, outDegrees, null);
+  }
+
+  //Creates a new graph from the specified CSR arrays and the IDs of the documents, which may be null.
+  public LinkGraph(int numNodes, int[] offsets, int[] targets, int[] outDegrees, String[] ids) {
+    this.numNodes = numNodes;
+    this.offsets = IntBuffer.wrap(offsets);
+    this.targets = IntBuffer.wrap(targets);
+    this.outDegrees = IntBuffer.wrap(outDegrees);
+    this.ids = ids;
+    this.idTable = null;
+    this.idOffsets = null;
+  }
+
+  //Creates a graph read from a file, whose incoming links are already known and whose IDs are still in the file.
+  private LinkGraph(int numNodes, IntBuffer offsets, IntBuffer targets, IntBuffer outDegrees,
+      IntBuffer incomingOffsets, IntBuffer sources, ByteBuffer idTable, IntBuffer idOffsets) {
+    this.numNodes = numNodes;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.outDegrees = outDegrees;
+    this.incomingOffsets = incomingOffsets;
+    this.sources = sources;
+    this.ids = null;
+    this.idTable = idTable;
+    this.idOffsets = idOffsets;
+  }
+
+  //Creates the graph of the links between the LinkedDocuments in the specified collection. The out-degree of a
+  //document is the number of its outgoing links (see LinkedDocument.getOutgoingLinks): every readable document it
+  //links to counts once, except itself, including documents outside the collection, so their share of the PageRank
+  //leaves the graph. Only the links between documents of the collection are links of the graph. Crawler uses the same
+  //out-degrees.
+  public static LinkGraph createFromCollection(LinkedDocumentCollection ldc) {
+    int n = ldc.numDocuments();
+
+    String[] ids = new String[n];
+    HashMap<String, Integer> indices = new HashMap<>();
+    for (int i = 0; i < n; i++) {
+      ids[i] = ((LinkedDocument) ldc.get(i)).getID();
+      indices.put(ids[i], i);
+    }
+
+    int[] offsets = new int[n + 1];
+    int[] outDegrees = new int[n];
+    int[] targets = new int[16];
+    int numEdges = 0;
+
+    for (int i = 0; i < n; i++) {
+      offsets[i] = numEdges;
+      LinkedDocumentCollection outgoingLinks = ((LinkedDocument) ldc.get(i)).getOutgoingLinks();
+      outDegrees[i] = outgoingLinks.numDocuments();
+
+      for (Document doc : outgoingLinks) {
+        Integer target = indices.get(((LinkedDocument) doc).getID());
+        if (target != null && target != i) {
+          if (numEdges == targets.length) {
+            targets = Arrays.copyOf(targets, 2 * numEdges);
+          }
+          targets[numEdges++] = target;
+        }
+      }
+    }
+    offsets[n] = numEdges;
+
+    return new LinkGraph(n, offsets, Arrays.copyOf(targets, numEdges), outDegrees, ids);
+  }
+
+  //Writes this graph and the IDs of its documents to the specified file, which is replaced, if it exists.
+  //Documents without a known ID are stored with their number as ID.
+  public void writeToFile(String fileName) throws IOException {
+    if (this.sources == null) {
+      this.buildIncomingLinks();
+    }
+    int n = this.numNodes;
+
+    byte[][] encodedIDs = new byte[n][];
+    int[] idOffsets = new int[n + 1];
+    long idBytes = 0;
+    for (int i = 0; i < n; i++) {
+      String id = this.getID(i);
+      encodedIDs[i] = ((id == null) ? Integer.toString(i) : id).getBytes(StandardCharsets.UTF_8);
+      idBytes += encodedIDs[i].length;
+      if (idBytes > Integer.MAX_VALUE) {
+        throw new IOException("Die IDs sind zu lang.");
+      }
+      idOffsets[i + 1] = (int) idBytes;
+    }
+
+    try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      header.putInt(FILE_MAGIC).putInt(FILE_VERSION).putInt(n).putInt(this.numEdges()).putLong(idBytes);
+      header.flip();
+      writeFully(channel, header);
+
+      writeInts(channel, this.offsets, n + 1);
+      writeInts(channel, this.targets, this.numEdges());
+      writeInts(channel, this.outDegrees, n);
+      writeInts(channel, this.incomingOffsets, n + 1);
+      writeInts(channel, this.sources, this.numEdges());
+      writeInts(channel, IntBuffer.wrap(idOffsets), n + 1);
+      for (int i = 0; i < n; i++) {
+        writeFully(channel, ByteBuffer.wrap(encodedIDs[i]));
+      }
+    }
+  }
+
+  //Reads a graph written by writeToFile. The int arrays and the IDs are not copied, but served from read-only views
+  //of the mapped file; sections too large to be mapped at once are copied onto the heap. The mapping stays valid,
+  //until the graph is garbage collected, even after the file has been closed. The adjacency is checked once while
+  //loading: the offsets must ascend from 0 to the number of links, every link must lead to a document of the graph
+  //and every out-degree must count at least the links within the graph, otherwise the file is rejected.
+  public static LinkGraph readFromFile(String fileName) throws IOException {
+    try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_HEADER_SIZE)
+          .order(ByteOrder.LITTLE_ENDIAN);
+      if (header.getInt() != FILE_MAGIC || header.getInt() != FILE_VERSION) {
+        throw new IOException(fileName + " ist keine Graph-Datei.");
+      }
+      int n = header.getInt();
+      int numEdges = header.getInt();
+      long idBytes = header.getLong();
+      if (n < 0 || numEdges < 0 || idBytes < 0 || idBytes > Integer.MAX_VALUE) {
+        throw new IOException(fileName + " ist beschädigt.");
+      }
+
+      long position = FILE_HEADER_SIZE;
+      if (channel.size() != position + 4L * (4L * n + 3 + 2L * numEdges) + idBytes) {
+        throw new IOException(fileName + " ist unvollständig.");
+      }
+
+      IntBuffer offsets = mapInts(channel, position, n + 1);
+      position += 4L * (n + 1);
+      IntBuffer targets = mapInts(channel, position, numEdges);
+      position += 4L * numEdges;
+      IntBuffer outDegrees = mapInts(channel, position, n);
+      position += 4L * n;
+      IntBuffer incomingOffsets = mapInts(channel, position, n + 1);
+      position += 4L * (n + 1);
+      IntBuffer sources = mapInts(channel, position, numEdges);
+      position += 4L * numEdges;
+      IntBuffer idOffsets = mapInts(channel, position, n + 1);
+      position += 4L * (n + 1);
+      ByteBuffer idTable = channel.map(FileChannel.MapMode.READ_ONLY, position, idBytes);
+
+      if (!isAdjacency(offsets, targets, n, numEdges) || !isAdjacency(incomingOffsets, sources, n, numEdges)
+          || !isAdjacency(idOffsets, null, n, (int) idBytes)) {
+        throw new IOException(fileName + " ist beschädigt.");
+      }
+      for (int i = 0; i < n; i++) {
+        if (outDegrees.get(i) < offsets.get(i + 1) - offsets.get(i)) {
+          throw new IOException(fileName + " ist beschädigt.");
+        }
+      }
+
+      return new LinkGraph(n, offsets, targets, outDegrees, incomingOffsets, sources, idTable, idOffsets);
+    }
+  }
+
+  //Returns true, if the specified n + 1 offsets ascend from 0 to length and the first length entries of the specified
+  //adjacency, if it is not null, are documents of a graph with n documents.
+  private static boolean isAdjacency(IntBuffer offsets, IntBuffer adjacency, int n, int length) {
+    if (offsets.get(0) != 0 || offsets.get(n) != length) {
+      return false;
+    }
+    for (int i = 0; i < n; i++) {
+      if (offsets.get(i) > offsets.get(i + 1)) {
+        return false;
+      }
+    }
+    if (adjacency != null) {
+      for (int e = 0; e < length; e++) {
+        if (adjacency.get(e) < 0 || adjacency.get(e) >= n) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  //Writes the first length values of the specified buffer to the channel.
+  private static void writeInts(FileChannel channel, IntBuffer values, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(4L * length, 1 << 20) + 4)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    IntBuffer ints = buffer.asIntBuffer();
+
+    for (int written = 0; written < length; ) {
+      int count = Math.min(ints.capacity(), length - written);
+      ints.clear();
+      ints.put(values.duplicate().limit(written + count).position(written));
+      buffer.clear();
+      buffer.limit(4 * count);
+      writeFully(channel, buffer);
+      written += count;
+    }
+  }
+
+  //Writes the remaining bytes of the specified buffer to the channel.
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  //Returns a read-only view of the specified number of ints starting at the specified position of the channel. If
+  //they are too many to be mapped at once, they are copied onto the heap in chunks.
+  private static IntBuffer mapInts(FileChannel channel, long position, int length) throws IOException {
+    if (4L * length <= MAP_CHUNK_SIZE) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * length).order(ByteOrder.LITTLE_ENDIAN)
+          .asIntBuffer();
+    }
+
+    int[] values = new int[length];
+    for (int read = 0; read < length; ) {
+      int count = Math.min(MAP_CHUNK_SIZE / 4, length - read);
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position + 4L * read, 4L * count);
+      mapped.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(values, read, count);
+      read += count;
+    }
+    return IntBuffer.wrap(values);
+  }
+
+  //Returns the ID of the specified document or null, if it is not known.
+  public String getID(int node) {
+    if (this.ids != null) {
+      return this.ids[node];
+    }
+    if (this.idTable == null) {
+      return null;
+    }
+
+    byte[] bytes = new byte[this.idOffsets.get(node + 1) - this.idOffsets.get(node)];
+    ByteBuffer idTable = this.idTable.duplicate();
+    idTable.position(this.idOffsets.get(node));
+    idTable.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  //Returns the number of documents.
+  public int numNodes() {
+    return this.numNodes;
+  }
+
+  //Returns the number of links between the documents.
+  public int numEdges() {
+    return this.offsets.get(this.numNodes);
+  }
+
+  //Returns the number of outgoing links of the specified document, including links leaving the collection.
+  public int getOutDegree(int node) {
+    return this.outDegrees.get(node);
+  }
+
+  //Returns the number of links of the specified document to other documents of the graph.
+  public int getNumLinks(int node) {
+    return this.offsets.get(node + 1) - this.offsets.get(node);
+  }
+
+  //Returns the document, that the k-th link of the specified document leads to.
+  public int getLink(int node, int k) {
+    return this.targets.get(this.offsets.get(node) + k);
+  }
+
+  //Returns true, if the specified document has no outgoing links at all.
+  public boolean isDangling(int node) {
+    return this.outDegrees.get(node) == 0;
+  }
+
+  //Returns the documents linking to the specified document in ascending order.
+  public int[] getIncomingLinks(int node) {
+    if (this.sources == null) {
+      this.buildIncomingLinks();
+    }
+    int[] incomingLinks = new int[this.incomingOffsets.get(node + 1) - this.incomingOffsets.get(node)];
+    this.sources.get(this.incomingOffsets.get(node), incomingLinks);
+    return incomingLinks;
+  }
+
+  //Calculates the strongly connected components of this graph with Tarjan's algorithm: two documents belong to the
+  //same component, if each can be reached from the other by following links. Returns the number of the component of
+  //every document; the components are numbered in reverse topological order, so links only lead from a component to
+  //itself or to components with smaller numbers. The depth-first search uses explicit stacks, so long chains of links
+  //cannot overflow the thread stack.
+  public int[] stronglyConnectedComponents() {
+    int n = this.numNodes;
+    int[] component = new int[n];
+    int[] index = new int[n];
+    int[] lowLink = new int[n];
+    boolean[] onStack = new boolean[n];
+    Arrays.fill(index, -1);
+
+    /* the stack of Tarjan's algorithm and the stack of the depth-first search with the next link to follow */
+    int[] stack = new int[n];
+    int[] path = new int[n];
+    int[] nextLink = new int[n];
+    int stackSize = 0;
+    int pathLength = 0;
+    int nextIndex = 0;
+    int numComponents = 0;
+
+    for (int root = 0; root < n; root++) {
+      if (index[root] != -1) {
+        continue;
+      }
+
+      index[root] = lowLink[root] = nextIndex++;
+      stack[stackSize++] = root;
+      onStack[root] = true;
+      path[pathLength] = root;
+      nextLink[pathLength++] = this.offsets.get(root);
+
+      while (pathLength > 0) {
+        int v = path[pathLength - 1];
+
+        if (nextLink[pathLength - 1] < this.offsets.get(v + 1)) {
+          int w = this.targets.get(nextLink[pathLength - 1]++);
+          if (index[w] == -1) {
+            index[w] = lowLink[w] = nextIndex++;
+            stack[stackSize++] = w;
+            onStack[w] = true;
+            path[pathLength] = w;
+            nextLink[pathLength++] = this.offsets.get(w);
+          } else if (onStack[w]) {
+            lowLink[v] = Math.min(lowLink[v], index[w]);
+          }
+        } else {
+          pathLength--;
+          if (lowLink[v] == index[v]) {
+            int w;
+            do {
+              w = stack[--stackSize];
+              onStack[w] = false;
+              component[w] = numComponents;
+            } while (w != v);
+            numComponents++;
+          }
+          if (pathLength > 0) {
+            int u = path[pathLength - 1];
+            lowLink[u] = Math.min(lowLink[u], lowLink[v]);
+          }
+        }
+      }
+    }
+
+    return component;
+  }
+
+  //Returns a renumbering of the documents for better locality of the link analysis: the document with the new number
+  //k is the document order[k] of this graph. See NodeOrdering for the strategies.
+  public int[] localityOrder(NodeOrdering ordering) {
+    if (this.sources == null) {
+      this.buildIncomingLinks();
+    }
+    int n = this.numNodes;
+
+    /* all documents descending by the number of incoming links; equal ones keep their order */
+    int maxInDegree = 0;
+    for (int i = 0; i < n; i++) {
+      maxInDegree = Math.max(maxInDegree, this.incomingOffsets.get(i + 1) - this.incomingOffsets.get(i));
+    }
+    int[] degreeOffsets = new int[maxInDegree + 2];
+    for (int i = 0; i < n; i++) {
+      degreeOffsets[maxInDegree - (this.incomingOffsets.get(i + 1) - this.incomingOffsets.get(i)) + 1]++;
+    }
+    for (int k = 0; k <= maxInDegree; k++) {
+      degreeOffsets[k + 1] += degreeOffsets[k];
+    }
+    int[] byDegree = new int[n];
+    for (int i = 0; i < n; i++) {
+      byDegree[degreeOffsets[maxInDegree - (this.incomingOffsets.get(i + 1) - this.incomingOffsets.get(i))]++] = i;
+    }
+
+    if (ordering == NodeOrdering.DEGREE) {
+      return byDegree;
+    }
+
+    /* breadth-first search over outgoing and incoming links; order is used as the queue */
+    int[] order = new int[n];
+    boolean[] visited = new boolean[n];
+    int head = 0;
+    int tail = 0;
+    for (int start : byDegree) {
+      if (visited[start]) {
+        continue;
+      }
+      visited[start] = true;
+      order[tail++] = start;
+
+      while (head < tail) {
+        int node = order[head++];
+        for (int e = this.offsets.get(node); e < this.offsets.get(node + 1); e++) {
+          if (!visited[this.targets.get(e)]) {
+            visited[this.targets.get(e)] = true;
+            order[tail++] = this.targets.get(e);
+          }
+        }
+        for (int e = this.incomingOffsets.get(node); e < this.incomingOffsets.get(node + 1); e++) {
+          if (!visited[this.sources.get(e)]) {
+            visited[this.sources.get(e)] = true;
+            order[tail++] = this.sources.get(e);
+          }
+        }
+      }
+    }
+    return order;
+  }
+
+  //Returns this graph with the documents renumbered: document k of the new graph is document order[k] of this graph.
+  //The links of every document are sorted by their new numbers.
+  public LinkGraph permute(int[] order) {
+    int n = this.numNodes;
+    int[] newNumbers = new int[n];
+    for (int k = 0; k < n; k++) {
+      newNumbers[order[k]] = k;
+    }
+
+    int[] offsets = new int[n + 1];
+    int[] targets = new int[this.numEdges()];
+    int[] outDegrees = new int[n];
+    String[] ids = (this.ids == null && this.idTable == null) ? null : new String[n];
+    int numEdges = 0;
+
+    for (int k = 0; k < n; k++) {
+      int node = order[k];
+      offsets[k] = numEdges;
+      for (int e = this.offsets.get(node); e < this.offsets.get(node + 1); e++) {
+        targets[numEdges++] = newNumbers[this.targets.get(e)];
+      }
+      Arrays.sort(targets, offsets[k], numEdges);
+      outDegrees[k] = this.outDegrees.get(node);
+      if (ids != null) {
+        ids[k] = this.getID(node);
+      }
+    }
+    offsets[n] = numEdges;
+
+    return new LinkGraph(n, offsets, targets, outDegrees, ids);
+  }
+
+  //Builds the incoming links from the outgoing ones with a counting sort in one pass over all links, if this has not
+  //been done yet. The sources of every document are in ascending order.
+  private synchronized void buildIncomingLinks() {
+    if (this.sources != null) {
+      return;
+    }
+
+    int n = this.numNodes;
+    int[] incomingOffsets = new int[n + 1];
+    for (int e = 0; e < this.numEdges(); e++) {
+      incomingOffsets[this.targets.get(e) + 1]++;
+    }
+    for (int i = 0; i < n; i++) {
+      incomingOffsets[i + 1] += incomingOffsets[i];
+    }
+
+    int[] next = Arrays.copyOf(incomingOffsets, n);
+    int[] sources = new int[this.numEdges()];
+    for (int j = 0; j < n; j++) {
+      for (int e = this.offsets.get(j); e < this.offsets.get(j + 1); e++) {
+        sources[next[this.targets.get(e)]++] = j;
+      }
+    }
+
+    this.incomingOffsets = IntBuffer.wrap(incomingOffsets);
+    this.sources = IntBuffer.wrap(sources);
+  }
+
+  //Calculates one step of the PageRank power iteration: the result is M * ranks with
+  //M = dampingFactor * A + (1 - dampingFactor) / n, where A[i][j] = 1 / outDegree(j), if j links to i, and a dangling
+  //document j links to all other documents with 1 / (n - 1). The teleport term and the dangling documents are applied
+  //as scalars, so the step takes O(n + links) time.
+  public double[] pageRankStep(double[] ranks, double dampingFactor) {
+    int n = this.numNodes;
+    double[] result = new double[n];
+
+    double sum = 0;
+    double danglingSum = 0;
+    for (int j = 0; j < n; j++) {
+      sum += ranks[j];
+      if (this.outDegrees.get(j) == 0) {
+        danglingSum += ranks[j];
+      } else {
+        double share = ranks[j] / this.outDegrees.get(j);
+        for (int e = this.offsets.get(j); e < this.offsets.get(j + 1); e++) {
+          result[this.targets.get(e)] += share;
+        }
+      }
+    }
+
+    double teleport = (1 - dampingFactor) / n * sum;
+    for (int i = 0; i < n; i++) {
+      double dangling = 0;
+      if (n > 1) {
+        dangling = (danglingSum - (this.outDegrees.get(i) == 0 ? ranks[i] : 0)) / (n - 1);
+      }
+      result[i] = dampingFactor * (result[i] + dangling) + teleport;
+    }
+
+    return result;
+  }
+
+  //Calculates personalized PageRank values for several seed sets at once. For seed set b, the teleport term does not
+  //go to all documents, but is divided evenly between the documents of seedSets[b] (between all documents, if it is
+  //empty), so the values measure the importance of the documents as seen from the seeds. The iteration starts with
+  //start[b] or, if it is null, with the teleport distribution and stops, when no value changes by more than epsilon.
+  //The values of all seed sets are stored next to each other for every document, so one pass over the links updates
+  //all of them.
+  public double[][] personalizedPageRank(int[][] seedSets, double dampingFactor, double epsilon, double[][] start) {
+    int n = this.numNodes;
+    int numSets = seedSets.length;
+
+    /* the teleport distribution of every seed set */
+    double[] teleports = new double[n * numSets];
+    for (int b = 0; b < numSets; b++) {
+      if (seedSets[b].length == 0) {
+        for (int i = 0; i < n; i++) {
+          teleports[i * numSets + b] = 1.0d / n;
+        }
+      } else {
+        for (int seed : seedSets[b]) {
+          teleports[seed * numSets + b] += 1.0d / seedSets[b].length;
+        }
+      }
+    }
+
+    double[] ranks = new double[n * numSets];
+    for (int b = 0; b < numSets; b++) {
+      for (int i = 0; i < n; i++) {
+        ranks[i * numSets + b] = (start[b] != null) ? start[b][i] : teleports[i * numSets + b];
+      }
+    }
+
+    double maxChange;
+    do {
+      double[] newRanks = this.personalizedPageRankStep(ranks, teleports, numSets, dampingFactor);
+
+      maxChange = 0;
+      for (int k = 0; k < ranks.length; k++) {
+        maxChange = Math.max(maxChange, Math.abs(newRanks[k] - ranks[k]));
+      }
+      ranks = newRanks;
+    } while (maxChange > epsilon);
+
+    double[][] result = new double[numSets][n];
+    for (int b = 0; b < numSets; b++) {
+      for (int i = 0; i < n; i++) {
+        result[b][i] = ranks[i * numSets + b];
+      }
+    }
+    return result;
+  }
+
+  //Calculates one step of the personalized PageRank iteration for numSets interleaved vectors like pageRankStep, but
+  //the teleport term of vector b is distributed like teleports[i * numSets + b].
+  private double[] personalizedPageRankStep(double[] ranks, double[] teleports, int numSets, double dampingFactor) {
+    int n = this.numNodes;
+    double[] result = new double[n * numSets];
+    double[] sums = new double[numSets];
+    double[] danglingSums = new double[numSets];
+    double[] shares = new double[numSets];
+
+    for (int j = 0; j < n; j++) {
+      int row = j * numSets;
+      for (int b = 0; b < numSets; b++) {
+        sums[b] += ranks[row + b];
+      }
+
+      if (this.outDegrees.get(j) == 0) {
+        for (int b = 0; b < numSets; b++) {
+          danglingSums[b] += ranks[row + b];
+        }
+      } else {
+        for (int b = 0; b < numSets; b++) {
+          shares[b] = ranks[row + b] / this.outDegrees.get(j);
+        }
+        for (int e = this.offsets.get(j); e < this.offsets.get(j + 1); e++) {
+          int target = this.targets.get(e) * numSets;
+          for (int b = 0; b < numSets; b++) {
+            result[target + b] += shares[b];
+          }
+        }
+      }
+    }
+
+    for (int i = 0; i < n; i++) {
+      int row = i * numSets;
+      boolean dangling = this.outDegrees.get(i) == 0;
+      for (int b = 0; b < numSets; b++) {
+        double danglingShare = 0;
+        if (n > 1) {
+          danglingShare = (danglingSums[b] - (dangling ? ranks[row + b] : 0)) / (n - 1);
+        }
+        result[row + b] = dampingFactor * (result[row + b] + danglingShare)
+            + (1 - dampingFactor) * sums[b] * teleports[row + b];
+      }
+    }
+
+    return result;
+  }
+
+  //Updates the specified ranks in place with one Gauss-Seidel sweep for x = M * x: the new value of every document
+  //is calculated from the values of the documents linking to it, which are already updated, if they come before it.
+  //The teleport term and the mass of the dangling documents are updated with every value as well. Afterwards, the
+  //values are scaled to their sum before the sweep. Unlike power iteration, the sweep keeps the sum even if links lead
+  //out of the graph, so then its fixed point differs from the values of power iteration (see GaussSeidelSolver).
+  public void gaussSeidelSweep(double[] ranks, double dampingFactor) {
+    if (this.sources == null) {
+      this.buildIncomingLinks();
+    }
+    IntBuffer sources = this.sources;
+    IntBuffer incomingOffsets = this.incomingOffsets;
+
+    int n = this.numNodes;
+
+    double sum = 0;
+    double danglingSum = 0;
+    for (int j = 0; j < n; j++) {
+      sum += ranks[j];
+      if (this.outDegrees.get(j) == 0) {
+        danglingSum += ranks[j];
+      }
+    }
+    double oldSum = sum;
+
+    for (int i = 0; i < n; i++) {
+      double incoming = 0;
+      for (int e = incomingOffsets.get(i); e < incomingOffsets.get(i + 1); e++) {
+        incoming += ranks[sources.get(e)] / this.outDegrees.get(sources.get(e));
+      }
+
+      boolean dangling = this.outDegrees.get(i) == 0;
+      if (n > 1) {
+        incoming += (danglingSum - (dangling ? ranks[i] : 0)) / (n - 1);
+      }
+
+      double rank = dampingFactor * incoming + (1 - dampingFactor) / n * sum;
+      sum += rank - ranks[i];
+      if (dangling) {
+        danglingSum += rank - ranks[i];
+      }
+      ranks[i] = rank;
+    }
+
+    if (sum > 0) {
+      for (int i = 0; i < n; i++) {
+        ranks[i] *= oldSum / sum;
+      }
+    }
+  }
+
+  //Calculates the rows [from, to) of one step of the PageRank power iteration into result and returns the maximum
+  //change compared to ranks. Every document pulls the shares ranks[j] / outDegree(j) of the documents j linking to it
+  //(0 for dangling documents), so disjoint ranges of rows can be calculated by different threads at the same time.
+  //teleport is (1 - dampingFactor) / n times the sum of all ranks and danglingSum the sum of the ranks of all
+  //dangling documents.
+  public double pageRankRows(double[] ranks, double[] shares, double[] result, double dampingFactor, double teleport,
+      double danglingSum, int from, int to) {
+    if (this.sources == null) {
+      this.buildIncomingLinks();
+    }
+    IntBuffer sources = this.sources;
+    IntBuffer incomingOffsets = this.incomingOffsets;
+
+    int n = this.numNodes;
+    double maxChange = 0;
+    for (int i = from; i < to; i++) {
+      double incoming = 0;
+      for (int e = incomingOffsets.get(i); e < incomingOffsets.get(i + 1); e++) {
+        incoming += shares[sources.get(e)];
+      }
+
+      double dangling = 0;
+      if (n > 1) {
+        dangling = (danglingSum - (this.outDegrees.get(i) == 0 ? ranks[i] : 0)) / (n - 1);
+      }
+      result[i] = dampingFactor * (incoming + dangling) + teleport;
+      maxChange = Math.max(maxChange, Math.abs(result[i] - ranks[i]));
+    }
+
+    return maxChange;
+  }
+
+  //Calculates the rows [from, to) of the authority step of HITS into result: the authority of a document is the sum
+  //of the hub values of the documents linking to it. Returns the sum of the squares of the calculated values, so the
+  //caller can normalize them.
+  public double authorityRows(double[] hubs, double[] result, int from, int to) {
+    if (this.sources == null) {
+      this.buildIncomingLinks();
+    }
+    IntBuffer sources = this.sources;
+    IntBuffer incomingOffsets = this.incomingOffsets;
+
+    double squares = 0;
+    for (int i = from; i < to; i++) {
+      double authority = 0;
+      for (int e = incomingOffsets.get(i); e < incomingOffsets.get(i + 1); e++) {
+        authority += hubs[sources.get(e)];
+      }
+      result[i] = authority;
+      squares += authority * authority;
+    }
+    return squares;
+  }
+
+  //Calculates the rows [from, to) of the hub step of HITS into result: the hub value of a document is the sum of the
+  //authorities of the documents it links to. Returns the sum of the squares of the calculated values.
+  public double hubRows(double[] authorities, double[] result, int from, int to) {
+    double squares = 0;
+    for (int j = from; j < to; j++) {
+      double hub = 0;
+      for (int e = this.offsets.get(j); e < this.offsets.get(j + 1); e++) {
+        hub += authorities[this.targets.get(e)];
+      }
+      result[j] = hub;
+      squares += hub * hub;
+    }
+    return squares;
+  }
+
+  //Returns the graph of the links between the specified documents, which must be distinct. Document k of the new
+  //graph is nodes[k]; links to other documents are left out, also from the out-degrees.
+  public LinkGraph subgraph(int[] nodes) {
+    HashMap<Integer, Integer> position = new HashMap<>();
+    for (int k = 0; k < nodes.length; k++) {
+      position.put(nodes[k], k);
+    }
+
+    int[] offsets = new int[nodes.length + 1];
+    int[] targets = new int[16];
+    int[] outDegrees = new int[nodes.length];
+    String[] ids = (this.ids == null && this.idTable == null) ? null : new String[nodes.length];
+    int numEdges = 0;
+
+    for (int k = 0; k < nodes.length; k++) {
+      offsets[k] = numEdges;
+      for (int e = this.offsets.get(nodes[k]); e < this.offsets.get(nodes[k] + 1); e++) {
+        Integer target = position.get(this.targets.get(e));
+        if (target != null) {
+          if (numEdges == targets.length) {
+            targets = Arrays.copyOf(targets, 2 * numEdges);
+          }
+          targets[numEdges++] = target;
+        }
+      }
+      outDegrees[k] = numEdges - offsets[k];
+      if (ids != null) {
+        ids[k] = this.getID(nodes[k]);
+      }
+    }
+    offsets[nodes.length] = numEdges;
+
+    return new LinkGraph(nodes.length, offsets, Arrays.copyOf(targets, numEdges), outDegrees, ids);
+  }
+
+  //Calculates the truncated recursive PageRank of LinkedDocumentCollection.pageRankRec(dampingFactor) for all
+  //documents: the value of document i at depth k is (1 - d) / n plus d * PR(j) / c(j) for every document j linking to
+  //it, where PR(j) is the value of j at depth k + 1 and c(j) the number of documents j links to. Dangling documents
+  //link to all other documents. Below maxDepth, PR(j) is 1 / n. A document without any incoming link gets the values
+  //of the documents 0, ..., n - 2 instead, like the original recursive evaluation.
+  //The levels are calculated bottom up from maxDepth to recDepth, so it takes O((maxDepth - recDepth) * (n + links))
+  //time; the dangling documents are added as one sum per level.
+  public double[] pageRankRec(double dampingFactor, int recDepth, int maxDepth) {
+    if (this.sources == null) {
+      this.buildIncomingLinks();
+    }
+    IntBuffer sources = this.sources;
+    IntBuffer incomingOffsets = this.incomingOffsets;
+
+    int n = this.numNodes;
+    double d = dampingFactor;
+
+    /* the number of links of every document within the graph; dangling documents link to all others */
+    int numDangling = 0;
+    int[] c = new int[n];
+    for (int j = 0; j < n; j++) {
+      if (this.outDegrees.get(j) == 0) {
+        c[j] = n - 1;
+        numDangling++;
+      } else {
+        c[j] = this.offsets.get(j + 1) - this.offsets.get(j);
+      }
+    }
+
+    double[] PR = new double[n];
+    Arrays.fill(PR, 1.0d / n);
+
+    for (int depth = Math.max(recDepth, maxDepth); depth >= recDepth; depth--) {
+      double danglingSum = 0;
+      double fallbackSum = 0;
+      for (int j = 0; j < n; j++) {
+        if (this.outDegrees.get(j) == 0) {
+          danglingSum += PR[j];
+        }
+        if (j < n - 1) {
+          fallbackSum += d * PR[j] / c[j];
+        }
+      }
+
+      double[] levelPR = new double[n];
+      for (int i = 0; i < n; i++) {
+        double sum = (1 - d) / n;
+        int otherDangling = numDangling - (this.outDegrees.get(i) == 0 ? 1 : 0);
+
+        if (incomingOffsets.get(i) == incomingOffsets.get(i + 1) && otherDangling == 0) {
+          sum += fallbackSum;
+        } else {
+          for (int e = incomingOffsets.get(i); e < incomingOffsets.get(i + 1); e++) {
+            sum += d * PR[sources.get(e)] / c[sources.get(e)];
+          }
+          if (otherDangling > 0) {
+            sum += d * (danglingSum - (this.outDegrees.get(i) == 0 ? PR[i] : 0)) / (n - 1);
+          }
+        }
+        levelPR[i] = sum;
+      }
+      PR = levelPR;
+    }
+
+    return PR;
+  }
+}
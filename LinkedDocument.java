@@ -1,3 +1,8 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 //This class represents a linked document.
 public class LinkedDocument extends Document {
   //the prefix of the links in the document text
@@ -27,6 +32,17 @@ public class LinkedDocument extends Document {
     this.setLinkCountZero();
   }
 
+  //Creates a new instance with the specified words and their counts, e.g. read by readFrom, without a text.
+  private LinkedDocument(String title, String id, String[] outgoingIDs, WordCountsArray wordCounts) {
+    super(title, "", "", null, null, wordCounts);
+
+    this.id = id;
+    this.incomingLinks = new LinkedDocumentCollection();
+
+    this.outgoingIDs = outgoingIDs;
+    this.outgoingLinks = null;
+  }
+
   //Returns a new LinkedDocument instance, that is created from the specified file.
   public static LinkedDocument createLinkedDocumentFromFile(String fileName) {
     String[] fileContent = Terminal.readFile(fileName);
@@ -42,6 +58,70 @@ public class LinkedDocument extends Document {
   }
 
 
+  //Writes the title, the ID, the outgoing IDs and the word counts of this instance to the specified stream, so
+  //readFrom can create it again without reading and tokenizing its file. The words are written as strings, because
+  //the term IDs are only valid within one TermDictionary.
+  public void writeTo(DataOutputStream out) throws IOException {
+    writeString(out, this.getTitle());
+    writeString(out, this.id);
+
+    String[] outgoingIDs = this.getOutgoingIDs();
+    out.writeInt(outgoingIDs.length);
+    for (String outgoingID : outgoingIDs) {
+      writeString(out, outgoingID);
+    }
+
+    WordCountsArray wca = this.getWordCounts();
+    out.writeInt(wca.size());
+    for (int i = 0; i < wca.size(); i++) {
+      writeString(out, wca.getWord(i));
+      out.writeInt(wca.getCount(i));
+    }
+  }
+
+  //Returns a new LinkedDocument instance read from the specified stream, that has been written by writeTo.
+  public static LinkedDocument readFrom(DataInputStream in) throws IOException {
+    String title = readString(in);
+    String id = readString(in);
+
+    String[] outgoingIDs = new String[readLength(in)];
+    for (int i = 0; i < outgoingIDs.length; i++) {
+      outgoingIDs[i] = readString(in);
+    }
+
+    int numWords = readLength(in);
+    WordCountsArray wca = new WordCountsArray(numWords);
+    for (int i = 0; i < numWords; i++) {
+      String word = readString(in);
+      wca.add(word, in.readInt());
+    }
+
+    return new LinkedDocument(title, id, outgoingIDs, wca);
+  }
+
+  //Writes the specified string as its length in bytes followed by its bytes in UTF-8.
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  //Reads a string written by writeString.
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[readLength(in)];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  //Reads a length, which must not be negative.
+  private static int readLength(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      throw new IOException("Ungültige Länge " + length + ".");
+    }
+    return length;
+  }
+
   //Searches the WordCountsArray of this instance for links (beginning with "LINK_PREFIX") and sets their count to 0
   private void setLinkCountZero() {
     WordCountsArray wca = this.getWordCounts();
@@ -113,6 +193,16 @@ public class LinkedDocument extends Document {
     return this.outgoingLinks;
   }
 
+  //Returns the IDs of the LinkedDocuments this instance links to, in the order of the links in the text.
+  public String[] getOutgoingIDs() {
+    return this.outgoingIDs == null ? new String[0] : this.outgoingIDs.clone();
+  }
+
+  //Replaces the LinkedDocumentCollection of LinkedDocuments that this instance links to.
+  public void setOutgoingLinks(LinkedDocumentCollection outgoingLinks) {
+    this.outgoingLinks = outgoingLinks;
+  }
+
   //This private helper method finds the outgoing links in the specified text.
   private String[] findOutgoingIDs(String text) {
     if (text == null) {
@@ -174,6 +264,11 @@ public class LinkedDocument extends Document {
     }
   }
 
+  //Replaces the LinkedDocumentCollection of LinkedDocuments that link to this instance.
+  public void setIncomingLinks(LinkedDocumentCollection incomingLinks) {
+    this.incomingLinks = incomingLinks;
+  }
+
   //Returns a LinkedDocumentCollection of LinkedDocuments that link to this instance.
   public LinkedDocumentCollection getIncomingLinks() {
     return this.incomingLinks;
@@ -1,23 +1,96 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 //This class is a collection of LinkedDocuments.
 public class LinkedDocumentCollection extends DocumentCollection {
 
   //epsilon for the PageRank algorithm
   public static final double PAGERANK_EPS = 0.000000001;
+
+  //the suffix of the name of the file, that stores the documents next to a link graph file
+  public static final String DOCUMENTS_FILE_SUFFIX = ".docs";
+
+  //the first int of a documents file and the version of its format
+  private static final int DOCUMENTS_FILE_MAGIC = 0x4C444F43;
+  private static final int DOCUMENTS_FILE_VERSION = 1;
+
+  //the maximum number of PageRank vectors kept in the cache of pageRank(dampingFactor)
+  private static final int PAGERANK_CACHE_SIZE = 16;
+
+  //the maximum number of personalized PageRank vectors kept in the cache
+  private static final int PERSONALIZED_CACHE_SIZE = 256;
+
+  //the depth, at which the recursion of pageRankRec stops and 1 / n is used instead
+  private static final int PAGERANK_REC_DEPTH = 90;
+
+  //the version of the link graph; it is increased whenever a LinkedDocument is added or removed
+  private int graphVersion;
+
+  //the last PageRank values calculated for every damping factor; the least recently used entry is dropped, when the
+  //cache is full
+  private final LinkedHashMap<Double, CachedPageRanks> pageRankCache;
+
+  //the last personalized PageRank values calculated for every seed set and damping factor; the least recently used
+  //entry is dropped, when the cache is full
+  private final LinkedHashMap<String, CachedPageRanks> personalizedCache;
+
+  //the algorithm used by pageRank(dampingFactor)
+  private PageRankSolver pageRankSolver;
+
+  //the graph of the links between the LinkedDocuments and the version of the graph it was built for
+  private LinkGraph linkGraph;
+  private int linkGraphVersion;
+
+  //the position of every LinkedDocument by its ID: the LinkedDocument with the ID id is at the index
+  //positions.get(id) + positionShift, so prepending a LinkedDocument does not change the other entries
+  private final HashMap<String, Integer> positions;
+  private int positionShift;
   
   //Empty constructor
   public LinkedDocumentCollection() {
     super();
+    this.graphVersion = 0;
+    this.pageRankCache = new LinkedHashMap<Double, CachedPageRanks>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Double, CachedPageRanks> eldest) {
+        return this.size() > PAGERANK_CACHE_SIZE;
+      }
+    };
+    this.personalizedCache = new LinkedHashMap<String, CachedPageRanks>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedPageRanks> eldest) {
+        return this.size() > PERSONALIZED_CACHE_SIZE;
+      }
+    };
+    this.pageRankSolver = new PowerIterationSolver(PAGERANK_EPS, ResidualNorm.MAX);
+    this.linkGraph = null;
+    this.linkGraphVersion = 0;
+    this.positions = new HashMap<>();
+    this.positionShift = 0;
   }
 
   //The specified Document is added to this collection only if it is of type LinkedDocument and 
   //if it is not already contained.
-  public void prependDocument(LinkedDocument doc) {
-    if (!(this.contains(doc))) {
+  @Override
+  public void prependDocument(Document doc) {
+    if ((doc instanceof LinkedDocument) && !(this.contains(doc))) {
       super.prependDocument(doc);
+      this.positionShift++;
+      this.positions.put(((LinkedDocument) doc).getID(), -this.positionShift);
+      this.graphVersion++;
     }
   }
 
@@ -26,186 +99,181 @@ public class LinkedDocumentCollection extends DocumentCollection {
   @Override
   public void appendDocument(Document doc) {
     if ((doc instanceof LinkedDocument) && !(this.contains(doc))) {
-      super.appendDocument(doc);
+      this.appendDistinctDocument((LinkedDocument) doc);
     }
   }
 
-  //Private helper method that crawls this collection.
-  private void crawl(LinkedDocumentCollection resultCollection) {
-    if (this.numDocuments() == 0) {
-      return;
+  //Removes the element at the specified index.
+  @Override
+  public boolean remove(int index) {
+    LinkedDocument doc = (index >= 0 && index < this.numDocuments()) ? (LinkedDocument) this.get(index) : null;
+    if (super.remove(index)) {
+      this.positions.remove(doc.getID());
+      this.updatePositions(index);
+      this.graphVersion++;
+      return true;
     }
+    return false;
+  }
 
-    /*
-     * loop over all documents of this collection and add them to the in/out
-     * parameter, if not already contained.
-     */
-    for (int i = 0; i < this.numDocuments(); i++) {
-      LinkedDocument doc = (LinkedDocument) this.get(i);
+  //Reorders the LinkedDocuments in this collection. The link graph does not change, so the cached PageRank values
+  //are reordered the same way and stay valid.
+  @Override
+  protected void reorder(int[] order) {
+    if (order == null || order.length != this.numDocuments()) {
+      return;
+    }
 
-      if (!resultCollection.contains(doc)) {
-        resultCollection.appendDocument(doc);
+    super.reorder(order);
+    this.updatePositions(0);
 
-        /* do the same recursively */
-        doc.getOutgoingLinks(resultCollection).crawl(resultCollection);
+    synchronized (this) {
+      this.linkGraph = null;
+      for (CachedPageRanks cached : this.pageRankCache.values()) {
+        if (cached.isValid(this.graphVersion, order.length)) {
+          cached.reorder(order);
+        }
+      }
+      for (CachedPageRanks cached : this.personalizedCache.values()) {
+        if (cached.isValid(this.graphVersion, order.length)) {
+          cached.reorder(order);
+        }
       }
     }
   }
 
-  //This method crawls this LinkedDocumentCollection and returns a new LinkedDocumentCollection
-  public LinkedDocumentCollection crawl() {
-    LinkedDocumentCollection resultCollection = new LinkedDocumentCollection();
-    this.crawl(resultCollection);
-    return resultCollection;
+  //Renumbers the LinkedDocuments in this collection with the specified NodeOrdering, so that linked documents are
+  //close to each other: the collection, the cached PageRank values, the link graph and the postings of the inverted
+  //index are reordered, so the link analysis and the similarity calculation access memory more locally. The link
+  //graph itself does not change, so the PageRank values stay valid. Sorting the collection by relevance
+  //(match(query, dampingFactor, weightingFactor)) destroys the order again.
+  public synchronized void reorderByLocality(NodeOrdering ordering) {
+    LinkGraph graph = this.getLinkGraph();
+    int[] order = graph.localityOrder(ordering);
+    LinkGraph reordered = graph.permute(order);
+
+    this.reorder(order);
+    this.linkGraph = reordered;
+    this.linkGraphVersion = this.graphVersion;
+    this.renumberIndex();
   }
 
-  //This private helper method multiplies the specified matrix with the specified vector.
-  private static double[] multiply(double[][] matrix, double[] vector) {
-    if (matrix == null || vector == null) {
-      return null;
-    }
+  //Returns the version of the link graph of this collection. It changes whenever a LinkedDocument is added or removed.
+  public int getGraphVersion() {
+    return this.graphVersion;
+  }
 
-    double[] newVector = new double[vector.length];
+  //This method crawls this LinkedDocumentCollection and returns a new LinkedDocumentCollection. The linked files are
+  //read in parallel by a Crawler with one platform thread per available processor; the order of the result is the
+  //depth-first order of the links.
+  public LinkedDocumentCollection crawl() {
+    return this.crawl(new Crawler(0, false));
+  }
 
-    for (int i = 0; i < matrix.length; i++) {
-      newVector[i] = scalarProduct(matrix[i], vector);
-    }
+  //Crawls this LinkedDocumentCollection with the specified Crawler.
+  public LinkedDocumentCollection crawl(Crawler crawler) {
+    return crawler.crawl(this);
+  }
 
-    return newVector;
+  //Crawls this LinkedDocumentCollection like crawl() and writes the link graph of the result to the specified file,
+  //so it can be loaded again with createFromLinkGraphFile without crawling. The titles, outgoing IDs and word counts
+  //of the documents are written next to it, to the file with the suffix DOCUMENTS_FILE_SUFFIX.
+  //The graph is the one built by the Crawler while linking the documents, so writing it does not visit the outgoing
+  //links of the documents again. The returned documents themselves are kept on the heap.
+  public LinkedDocumentCollection crawl(String graphFileName) throws IOException {
+    LinkedDocumentCollection resultCollection = this.crawl();
+    resultCollection.getLinkGraph().writeToFile(graphFileName);
+    resultCollection.writeDocuments(graphFileName + DOCUMENTS_FILE_SUFFIX);
+    return resultCollection;
   }
 
-  //This private helper method calculates the scalar product of the two specified vectors.
-  private static double scalarProduct(double[] vectorA, double[] vectorB) {
-    if (vectorA == null || vectorB == null) {
-      return 0;
+  //Creates a LinkedDocumentCollection from a link graph file written by crawl(graphFileName). The LinkedDocuments are
+  //read from the documents file next to it, so their files are neither read nor tokenized again; only their words are
+  //looked up in the TermDictionary. The graph is used for PageRank, so the outgoing links of the documents are
+  //neither read nor compared.
+  //If there is no documents file, the LinkedDocuments are read in parallel by a Crawler from the files named by the
+  //IDs in the graph instead. If a document cannot be read then, it is left out, and the graph is built from the links
+  //of the documents again, when it is needed.
+  public static LinkedDocumentCollection createFromLinkGraphFile(String graphFileName) throws IOException {
+    LinkGraph graph = LinkGraph.readFromFile(graphFileName);
+
+    LinkedDocumentCollection ldc = new LinkedDocumentCollection();
+    Path documentsFile = Paths.get(graphFileName + DOCUMENTS_FILE_SUFFIX);
+    if (Files.exists(documentsFile)) {
+      for (LinkedDocument doc : readDocuments(documentsFile, graph.numNodes())) {
+        ldc.appendDocument(doc);
+      }
+      if (!ldc.setLinkGraph(graph)) {
+        throw new IOException(documentsFile + " passt nicht zu " + graphFileName + ".");
+      }
+      return ldc;
     }
 
-    if (vectorA.length != vectorB.length) {
-      return 0;
+    String[] ids = new String[graph.numNodes()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = graph.getID(i);
     }
-
-    /* calculate the scalar product */
-    double result = 0;
-
-    for (int i = 0; i < vectorA.length; i++) {
-      result += vectorA[i] * vectorB[i];
+    for (LinkedDocument doc : new Crawler(0, false).read(ids)) {
+      ldc.appendDocument(doc);
     }
-
-    return result;
+    ldc.setLinkGraph(graph);
+    return ldc;
   }
 
-  //This private helper method calculates the matrix A, which we will need to calculate the matrix M.
-  private double[][] calculateMatrixA() {
-    this.calculateIncomingLinks();
-    
-    double[][] matrixA = new double[this.numDocuments()][this.numDocuments()];
+  //Writes the LinkedDocuments of this collection in their order to the specified file, which is replaced, if it
+  //exists. See LinkedDocument.writeTo.
+  private synchronized void writeDocuments(String fileName) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(Paths.get(fileName)), 1 << 16))) {
+      out.writeInt(DOCUMENTS_FILE_MAGIC);
+      out.writeInt(DOCUMENTS_FILE_VERSION);
+      out.writeInt(this.numDocuments());
+      for (Document doc : this) {
+        ((LinkedDocument) doc).writeTo(out);
+      }
+    }
+  }
 
-    for (int i = 0; i < this.numDocuments(); i++) {
-      if (((LinkedDocument) this.get(i)).getOutgoingLinks().numDocuments() == 0) {
-        for (int j = 0; j < this.numDocuments(); j++) {
-          if (i != j) {
-            matrixA[j][i] = 1.0d / (this.numDocuments() - 1);
-          }
-        }
+  //Reads the LinkedDocuments written by writeDocuments, which must be the specified number.
+  private static LinkedDocument[] readDocuments(Path file, int numDocuments) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+      if (in.readInt() != DOCUMENTS_FILE_MAGIC || in.readInt() != DOCUMENTS_FILE_VERSION) {
+        throw new IOException(file + " ist keine Dokumentdatei.");
+      }
+      if (in.readInt() != numDocuments) {
+        throw new IOException(file + " ist beschädigt.");
       }
 
-      /*
-       * loop over all documents linking to document at index i and set the
-       * corresponding value in matrixA
-       */
-      LinkedDocumentCollection incomingLinks = ((LinkedDocument) this.get(i)).getIncomingLinks();
-      for (int j = 0; j < incomingLinks.numDocuments(); j++) {
-        /* inLink is a document that links to the document at index i */
-        LinkedDocument inLink = (LinkedDocument) incomingLinks.get(j);
-
-        int index = this.indexOf(inLink);
-        if (index >= 0) {
-          matrixA[i][index] = 1.0d / inLink.getOutgoingLinks().numDocuments();
-        }
+      LinkedDocument[] docs = new LinkedDocument[numDocuments];
+      for (int i = 0; i < numDocuments; i++) {
+        docs[i] = LinkedDocument.readFrom(in);
       }
+      return docs;
     }
-
-    return matrixA;
   }
 
-  //This private helper methods calculates the matrix M, that will be the basis for the calculation of the Page Rank values.
-  private double[][] calculateMatrixM(double dampingFactor) {
-    double[][] matrixM = new double[this.numDocuments()][this.numDocuments()];
-    double[][] matrixA = calculateMatrixA();
-
-    for (int i = 0; i < this.numDocuments(); i++) {
-      for (int j = 0; j < this.numDocuments(); j++) {
-        matrixM[i][j] = dampingFactor * matrixA[i][j] + (1 - dampingFactor) / (double) this.numDocuments();
+  //Uses the specified graph as the link graph of this collection, if it has a document with the ID of the
+  //LinkedDocument at the same index for every LinkedDocument in this collection, and returns true in this case.
+  //The graph is used until a LinkedDocument is added or removed or the collection is reordered.
+  public synchronized boolean setLinkGraph(LinkGraph graph) {
+    if (graph.numNodes() != this.numDocuments()) {
+      return false;
+    }
+    for (int i = 0; i < graph.numNodes(); i++) {
+      if (!((LinkedDocument) this.get(i)).getID().equals(graph.getID(i))) {
+        return false;
       }
     }
 
-    return matrixM;
+    this.linkGraph = graph;
+    this.linkGraphVersion = this.graphVersion;
+    return true;
   }
 
   //Calculates PageRank recursively. This is the entry point for the actually recursive pageRank() method
-  public double[] pageRankRec(double dampingFactor) {
-    int[][] C = calculateMatrixC();
-    int n = C.length;
-
-    double[] PR = new double[n];
-    for (int i = 0; i < n; i++)
-      PR[i] = pageRankRec(C, i, dampingFactor, 0);
-    return PR;
-  }
-
-  //The positions within this collection of the documents pointing to the document at the given index position
-  private int[] getIncomingDocIndices(int[][] C, int index) {
-    int n = C.length, j = 0;
-    int[] indices = new int[n];
-    for (int i = 0; i < n; i++)
-      if (C[index][i] == 1)
-        indices[j++] = i;
-    if (j == 0)
-      for (int i = 0; i < n; i++)
-        if (i != index)
-          indices[j] = j++;
-    return Arrays.copyOf(indices, j);
-  }
-
-  //Sums up the number of outgoing links per document based on the given link matrix C
-  private int[] getNumOutgoingLinks(int[][] C) {
-    int n = C.length;
-    int[] c = new int[n];
-    for (int i = 0; i < n; i++)
-      for (int j = 0; j < n; j++)
-        c[i] += C[j][i];
-    return c;
-  }
-
-  //Calculates PageRank recursively.
-  public double pageRankRec(int[][] C, int i, double d, int recDepth) {
-    int n = C.length;
-    int[] js = getIncomingDocIndices(C, i);
-    int[] c = getNumOutgoingLinks(C);
-
-    double[] PR = Arrays.copyOf(initPageRanks(), js.length);
-    if (recDepth < 90)
-      for (int j = 0; j < js.length; j++)
-        PR[j] = pageRankRec(C, js[j], d, recDepth + 1);
-
-    double sum = (1 - d) / n;
-    for (int j = 0; j < js.length; j++)
-      sum += d * PR[j] / c[js[j]];
-    return sum;
-  }
-
-  //Calculates link matrix C
-  private int[][] calculateMatrixC() {
-    double[][] A = calculateMatrixA();
-    int n = A.length;
-    int[][] C = new int[n][n];
-
-    for (int i = 0; i < n; i++)
-      for (int j = 0; j < n; j++)
-        if (A[i][j] != 0)
-          C[i][j] = 1;
-
-    return C;
+  //The recursion is evaluated on the incoming links of the LinkGraph, see LinkGraph.pageRankRec.
+  public synchronized double[] pageRankRec(double dampingFactor) {
+    return this.getLinkGraph().pageRankRec(dampingFactor, 0, PAGERANK_REC_DEPTH);
   }
 
   //Generates the initial PageRank values
@@ -216,46 +284,192 @@ public class LinkedDocumentCollection extends DocumentCollection {
     return pageRanks;
   }
 
-  //This method calculates the Page Rank values for all documents in this collection.
-  public double[] pageRank(double dampingFactor) {
-    double[][] matrixM = calculateMatrixM(dampingFactor);
-    double[] pageRanks = initPageRanks();
+  //Sets the algorithm used by pageRank(dampingFactor). The cached PageRank values are discarded.
+  public synchronized void setPageRankSolver(PageRankSolver solver) {
+    if (solver != null) {
+      this.pageRankSolver = solver;
+      this.pageRankCache.clear();
+    }
+  }
 
-    boolean approximationIsBad;
-    do {
-      approximationIsBad = false;
-      double[] newPageRanks = multiply(matrixM, pageRanks);
+  //Returns the algorithm used by pageRank(dampingFactor). By default, it is power iteration, which stops, when no
+  //value changes by more than PAGERANK_EPS any more.
+  public synchronized PageRankSolver getPageRankSolver() {
+    return this.pageRankSolver;
+  }
 
-      int i = 0;
-      while (i < this.numDocuments() && !approximationIsBad) {
-        if (Math.abs(newPageRanks[i] - pageRanks[i]) > PAGERANK_EPS) {
-          approximationIsBad = true;
-        }
-        i++;
+  //This method calculates the Page Rank values for all documents in this collection with the PageRankSolver of this
+  //collection. The solvers work on the sparse LinkGraph, so every iteration takes time linear in the number of links.
+  //The result is cached for the current version of the link graph and the damping factor, so repeated calls do not
+  //iterate again. After the graph has changed, the iteration starts from the last result instead of 1 / n, which
+  //needs only a few iterations, if only a few LinkedDocuments were added or removed.
+  //It is synchronized, because building the graph may load the outgoing links of the contained LinkedDocuments.
+  public synchronized double[] pageRank(double dampingFactor) {
+    int n = this.numDocuments();
+    CachedPageRanks cached = this.pageRankCache.get(dampingFactor);
+    if (cached != null && cached.isValid(this.graphVersion, n)) {
+      return cached.pageRanks.clone();
+    }
+
+    double[] start = (cached == null) ? initPageRanks() : cached.warmStart(this);
+    double[] pageRanks = this.pageRankSolver.solve(this.getLinkGraph(), dampingFactor, start).getPageRanks();
+
+    this.pageRankCache.put(dampingFactor, new CachedPageRanks(this, pageRanks));
+    return pageRanks.clone();
+  }
+
+  //Calculates the PageRank values for all documents in this collection with the specified PageRankSolver, starting
+  //with 1 / n for every document. Unlike pageRank(dampingFactor), the result is not cached; it also reports the
+  //number of iterations, the change of the values in every iteration and the time needed, so solvers can be compared.
+  public synchronized PageRankResult pageRank(double dampingFactor, PageRankSolver solver) {
+    return solver.solve(this.getLinkGraph(), dampingFactor, initPageRanks());
+  }
+
+  //Calculates personalized PageRank values for every one of the specified seed sets, which contain indices of
+  //LinkedDocuments in this collection: the teleport term is divided evenly between the seeds instead of all documents,
+  //so documents close to the seeds in the link graph get higher values. For an empty seed set, the values equal
+  //pageRank(dampingFactor). All seed sets, whose values are not cached for the current version of the link graph,
+  //are calculated together in one batched iteration; the values are cached per seed set and damping factor.
+  public synchronized double[][] personalizedPageRank(int[][] seedSets, double dampingFactor) {
+    int n = this.numDocuments();
+    double[][] result = new double[seedSets.length][];
+
+    String[] keys = new String[seedSets.length];
+    int[][] missingSeedSets = new int[seedSets.length][];
+    double[][] starts = new double[seedSets.length][];
+    int[] missing = new int[seedSets.length];
+    int numMissing = 0;
+
+    for (int b = 0; b < seedSets.length; b++) {
+      int[] seeds = this.normalizeSeeds(seedSets[b]);
+      keys[b] = this.personalizationKey(seeds, dampingFactor);
+
+      CachedPageRanks cached = this.personalizedCache.get(keys[b]);
+      if (cached != null && cached.isValid(this.graphVersion, n)) {
+        result[b] = cached.pageRanks.clone();
+      } else {
+        missingSeedSets[numMissing] = seeds;
+        starts[numMissing] = (cached == null) ? null : cached.warmStart(this);
+        missing[numMissing++] = b;
       }
-      pageRanks = newPageRanks;
+    }
 
-    } while (approximationIsBad);
+    if (numMissing > 0) {
+      double[][] pageRanks = this.getLinkGraph().personalizedPageRank(Arrays.copyOf(missingSeedSets, numMissing),
+          dampingFactor, PAGERANK_EPS, Arrays.copyOf(starts, numMissing));
+      for (int m = 0; m < numMissing; m++) {
+        this.personalizedCache.put(keys[missing[m]], new CachedPageRanks(this, pageRanks[m]));
+        result[missing[m]] = pageRanks[m].clone();
+      }
+    }
 
-    return pageRanks;
+    return result;
+  }
+
+  //Returns the specified seeds sorted and without duplicates and indices outside of this collection.
+  private int[] normalizeSeeds(int[] seeds) {
+    int[] sorted = (seeds == null) ? new int[0] : seeds.clone();
+    Arrays.sort(sorted);
+
+    int size = 0;
+    for (int i = 0; i < sorted.length; i++) {
+      if (sorted[i] >= 0 && sorted[i] < this.numDocuments() && (size == 0 || sorted[size - 1] != sorted[i])) {
+        sorted[size++] = sorted[i];
+      }
+    }
+    return Arrays.copyOf(sorted, size);
+  }
+
+  //Returns the key of the specified seed set in the cache. It uses the IDs of the seeds, so it does not change, when
+  //the collection is reordered.
+  private String personalizationKey(int[] seeds, double dampingFactor) {
+    String[] ids = new String[seeds.length];
+    for (int i = 0; i < seeds.length; i++) {
+      ids[i] = ((LinkedDocument) this.get(seeds[i])).getID();
+    }
+    Arrays.sort(ids);
+    return dampingFactor + "\n" + String.join("\n", ids);
+  }
+
+  //Returns the number of the strongly connected component of the link graph, that every LinkedDocument in this
+  //collection belongs to. Documents in the same component can reach each other by following links; the components
+  //are numbered in reverse topological order.
+  public synchronized int[] stronglyConnectedComponents() {
+    return this.getLinkGraph().stronglyConnectedComponents();
+  }
+
+  //Approximates the PageRank values for all documents in this collection with random walks, which is much faster than
+  //pageRank(dampingFactor) for very large collections, if a rough estimate is good enough. The result is not cached.
+  public synchronized double[] approximatePageRank(double dampingFactor, MonteCarloPageRank approximation) {
+    return approximation.compute(this.getLinkGraph(), dampingFactor);
   }
 
+  //Returns the error of the specified approximation of the PageRank values in the specified norm, compared to the
+  //exact values of pageRank(dampingFactor), or NaN, if the approximation does not have a value for every
+  //LinkedDocument in this collection.
+  public double pageRankError(double[] approximation, double dampingFactor, ResidualNorm norm) {
+    if (approximation == null || approximation.length != this.numDocuments()) {
+      return Double.NaN;
+    }
+    return norm.distance(approximation, this.pageRank(dampingFactor));
+  }
+
+  //This method calculates all incoming links for every LinkedDocument in this collection: afterwards, the incoming
+  //links of every LinkedDocument are the LinkedDocuments of this collection, that link to it. They are taken from
+  //the incoming links of the LinkGraph, so it takes one pass over all links.
+  public synchronized void calculateIncomingLinks() {
+    LinkGraph graph = this.getLinkGraph();
 
-  //This method calculates all incoming links for every LinkedDocument in this collection.
-  public void calculateIncomingLinks() {
-    
     for (int i = 0; i < this.numDocuments(); i++) {
-      LinkedDocument doc = (LinkedDocument) this.get(i);
-      
-      for (int j = 0; j < this.numDocuments(); j++) {
-        LinkedDocument incomingDoc = (LinkedDocument) this.get(j);
-        if (incomingDoc.getOutgoingLinks().contains(doc)) {
-          doc.addIncomingLink(incomingDoc);
-        }
+      LinkedDocumentCollection incomingLinks = new LinkedDocumentCollection();
+      for (int source : graph.getIncomingLinks(i)) {
+        /* the graph has at most one link from source to i, so the check for duplicates is not needed */
+        incomingLinks.appendDistinctDocument((LinkedDocument) this.get(source));
       }
+      ((LinkedDocument) this.get(i)).setIncomingLinks(incomingLinks);
     }
   }
 
+  //Appends the specified LinkedDocument, which must not be contained in this collection yet.
+  private void appendDistinctDocument(LinkedDocument doc) {
+    super.appendDocument(doc);
+    this.positions.put(doc.getID(), this.numDocuments() - 1 - this.positionShift);
+    this.graphVersion++;
+  }
+
+  //Updates the positions of the LinkedDocuments from the specified index on, after they have been moved.
+  private void updatePositions(int from) {
+    for (int i = from; i < this.numDocuments(); i++) {
+      this.positions.put(((LinkedDocument) this.get(i)).getID(), i - this.positionShift);
+    }
+  }
+
+  //Returns the index of the LinkedDocument with the specified ID or -1, if there is none.
+  public int indexOf(String id) {
+    Integer position = this.positions.get(id);
+    return position == null ? -1 : position + this.positionShift;
+  }
+
+  //Returns the index in this collection of the specified Document. LinkedDocuments are looked up by their ID in
+  //constant time.
+  @Override
+  public int indexOf(Document doc) {
+    if (doc instanceof LinkedDocument) {
+      return this.indexOf(((LinkedDocument) doc).getID());
+    }
+    return super.indexOf(doc);
+  }
+
+  //Returns the graph of the links between the LinkedDocuments in this collection. It is built in one pass over the
+  //outgoing links and kept until a LinkedDocument is added or removed or the collection is reordered.
+  //It is synchronized, because building the graph may load the outgoing links of the contained LinkedDocuments.
+  public synchronized LinkGraph getLinkGraph() {
+    if (this.linkGraph == null || this.linkGraphVersion != this.graphVersion) {
+      this.linkGraph = LinkGraph.createFromCollection(this);
+      this.linkGraphVersion = this.graphVersion;
+    }
+    return this.linkGraph;
+  }
 
   //Returns a string representation of this LinkedDocumentCollection using the IDs of the LinkedDocuments.
   public String toString() {
@@ -277,36 +491,25 @@ public class LinkedDocumentCollection extends DocumentCollection {
 
   //Sorts this instance descending by the relevance of the contained LinkedDocuments.
   private double[] sortByRelevance(double dampingFactor, double weightingFactor) {
-    double[] pageRanks = this.pageRank(dampingFactor);
-    double[] relevance = new double[this.numDocuments()];
-    LinkedDocument[] docMap = new LinkedDocument[this.numDocuments()];
+    double[] relevance = computeRelevance(this.getQuerySimilarities(), this.pageRank(dampingFactor), weightingFactor);
 
-    for (int i = 0; i < this.numDocuments(); i++) {
-      relevance[i] = weightingFactor * this.getQuerySimilarity(i) + (1 - weightingFactor) * pageRanks[i];
-      docMap[i] = (LinkedDocument) this.get(i);
-    }
-
-    /* bubblesort(descending)*/
-    for (int i = 1; i < this.numDocuments(); i++) {
-      for (int j = 0; j < this.numDocuments() - i; j++) {
-        if (relevance[j] < relevance[j + 1]) {
-          double tmpRel = relevance[j];
-          relevance[j] = relevance[j + 1];
-          relevance[j + 1] = tmpRel;
+    int[] order = selectBest(relevance, this.numDocuments());
+    this.reorder(order);
 
-          LinkedDocument tmpDoc = docMap[j];
-          docMap[j] = docMap[j + 1];
-          docMap[j + 1] = tmpDoc;
-        }
-      }
+    double[] sortedRelevance = new double[order.length];
+    for (int i = 0; i < order.length; i++) {
+      sortedRelevance[i] = relevance[order[i]];
     }
 
-    /* create new collection containing documents in order according to relevance */
-    for (int i = 0; i < this.numDocuments(); i++) {
-      this.remove(this.indexOf(docMap[i]));
-      this.appendDocument(docMap[i]);
-    }
+    return sortedRelevance;
+  }
 
+  //Combines the specified similarities and PageRanks to the relevance of every document.
+  private static double[] computeRelevance(double[] similarities, double[] pageRanks, double weightingFactor) {
+    double[] relevance = new double[similarities.length];
+    for (int i = 0; i < relevance.length; i++) {
+      relevance[i] = weightingFactor * similarities[i] + (1 - weightingFactor) * pageRanks[i];
+    }
     return relevance;
   }
 
@@ -317,11 +520,183 @@ public class LinkedDocumentCollection extends DocumentCollection {
     return this.sortByRelevance(dampingFactor, weightingFactor);
   }
 
+  //This method calculates the relevance of all LinkedDocuments for the specified query and returns the k most relevant
+  //ones, the most relevant first, as an unmodifiable list. Unlike match(query, dampingFactor, weightingFactor), this
+  //collection is not changed and only the best k documents are ordered.
+  public List<SearchResult> match(String query, int k, double dampingFactor, double weightingFactor) {
+    List<SearchResult> results = new ArrayList<>();
+
+    if (this.isEmpty() || query == null || query.equals("")) {
+      return Collections.unmodifiableList(results);
+    }
+
+    double[] similarities = this.computeSimilarities(query);
+    double[] pageRanks = this.pageRank(dampingFactor);
+    double[] relevance = computeRelevance(similarities, pageRanks, weightingFactor);
+    Document[] documents = this.toArray();
+
+    for (int i : selectBest(relevance, k)) {
+      results.add(new SearchResult(documents[i], similarities[i], pageRanks[i], relevance[i]));
+    }
+
+    return Collections.unmodifiableList(results);
+  }
+
+  //Returns all LinkedDocuments in this collection ordered by their relevance for the specified query as an unmodifiable
+  //list. This collection is not changed, so any number of threads may query it concurrently, as long as no thread
+  //changes it at the same time.
+  public List<SearchResult> query(String query, double dampingFactor, double weightingFactor) {
+    return this.match(query, this.numDocuments(), dampingFactor, weightingFactor);
+  }
+
+  //Like match(query, k, dampingFactor, weightingFactor), but the PageRank values are personalized for the query: the
+  //numSeeds best matching LinkedDocuments are used as seeds of personalizedPageRank, so the results favour documents
+  //that are well linked from the best matches. If no document matches, the global PageRank values are used.
+  public List<SearchResult> personalizedMatch(String query, int k, int numSeeds, double dampingFactor,
+      double weightingFactor) {
+    return this.personalizedMatch(new String[] { query }, k, numSeeds, dampingFactor, weightingFactor).get(0);
+  }
+
+  //Answers several queries like personalizedMatch(query, k, numSeeds, dampingFactor, weightingFactor) and returns
+  //the results of every query in the same order. The personalized PageRank values of all queries are calculated in
+  //one batch.
+  public List<List<SearchResult>> personalizedMatch(String[] queries, int k, int numSeeds, double dampingFactor,
+      double weightingFactor) {
+    double[][] similarities = new double[queries.length][];
+    int[][] seedSets = new int[queries.length][];
+
+    for (int q = 0; q < queries.length; q++) {
+      seedSets[q] = new int[0];
+      if (this.isEmpty() || queries[q] == null || queries[q].equals("")) {
+        continue;
+      }
+
+      similarities[q] = this.computeSimilarities(queries[q]);
+      int[] best = selectBest(similarities[q], numSeeds);
+      int numMatches = 0;
+      while (numMatches < best.length && similarities[q][best[numMatches]] > 0) {
+        numMatches++;
+      }
+      seedSets[q] = Arrays.copyOf(best, numMatches);
+    }
+
+    double[][] pageRanks = this.personalizedPageRank(seedSets, dampingFactor);
+    Document[] documents = this.toArray();
+
+    List<List<SearchResult>> allResults = new ArrayList<>();
+    for (int q = 0; q < queries.length; q++) {
+      List<SearchResult> results = new ArrayList<>();
+      if (similarities[q] != null) {
+        double[] relevance = computeRelevance(similarities[q], pageRanks[q], weightingFactor);
+        for (int i : selectBest(relevance, k)) {
+          results.add(new SearchResult(documents[i], similarities[q][i], pageRanks[q][i], relevance[i]));
+        }
+      }
+      allResults.add(Collections.unmodifiableList(results));
+    }
+
+    return Collections.unmodifiableList(allResults);
+  }
+
+  //Calculates the hub and authority values of all LinkedDocuments in this collection with the specified HITS
+  //instance on the same link graph, that pageRank uses.
+  public synchronized HitsResult hits(HITS hits) {
+    return hits.compute(this.getLinkGraph());
+  }
+
+  //Like match(query, k, dampingFactor, weightingFactor), but ranks the documents by their HITS authority instead of
+  //their PageRank: HITS runs on the base set of the numRoots best matching LinkedDocuments, so the authorities are
+  //specific to the query. Documents outside of the base set have the authority 0. The SearchResults report the
+  //authority and no PageRank.
+  public List<SearchResult> hitsMatch(String query, int k, int numRoots, double weightingFactor, HITS hits) {
+    List<SearchResult> results = new ArrayList<>();
+
+    if (this.isEmpty() || query == null || query.equals("")) {
+      return Collections.unmodifiableList(results);
+    }
+
+    double[] similarities = this.computeSimilarities(query);
+    int[] best = selectBest(similarities, numRoots);
+    int numMatches = 0;
+    while (numMatches < best.length && similarities[best[numMatches]] > 0) {
+      numMatches++;
+    }
+
+    double[] authorities;
+    synchronized (this) {
+      authorities = hits.compute(this.getLinkGraph(), Arrays.copyOf(best, numMatches)).getAuthorities();
+    }
+    double[] relevance = computeRelevance(similarities, authorities, weightingFactor);
+    Document[] documents = this.toArray();
+
+    for (int i : selectBest(relevance, k)) {
+      results.add(new SearchResult(documents[i], similarities[i], 0, authorities[i], relevance[i]));
+    }
+
+    return Collections.unmodifiableList(results);
+  }
+
   //Finds a LinkedDocument with the given id if contained in this LinkedDocumentCollection
   public LinkedDocument findByID(String id) {
-    for (int i = 0; i < this.numDocuments(); i++)
-      if (((LinkedDocument) this.get(i)).getID().equals(id))
-        return ((LinkedDocument) this.get(i));
-    return null;
+    int index = this.indexOf(id);
+    return index == -1 ? null : (LinkedDocument) this.get(index);
+  }
+
+  //The PageRank values of a LinkedDocumentCollection for one version of its link graph.
+  private static class CachedPageRanks {
+    private final int graphVersion;
+    private final String[] ids;
+    private final double[] pageRanks;
+
+    //Stores the specified PageRank values of the LinkedDocuments currently in the specified collection.
+    CachedPageRanks(LinkedDocumentCollection ldc, double[] pageRanks) {
+      this.graphVersion = ldc.graphVersion;
+      this.ids = new String[pageRanks.length];
+      for (int i = 0; i < this.ids.length; i++) {
+        this.ids[i] = ((LinkedDocument) ldc.get(i)).getID();
+      }
+      this.pageRanks = pageRanks;
+    }
+
+    //Returns true, if the values belong to the specified version of the link graph.
+    boolean isValid(int graphVersion, int numDocuments) {
+      return this.graphVersion == graphVersion && this.pageRanks.length == numDocuments;
+    }
+
+    //Reorders the values like the LinkedDocuments of the collection.
+    void reorder(int[] order) {
+      String[] ids = this.ids.clone();
+      double[] pageRanks = this.pageRanks.clone();
+      for (int i = 0; i < order.length; i++) {
+        this.ids[i] = ids[order[i]];
+        this.pageRanks[i] = pageRanks[order[i]];
+      }
+    }
+
+    //Returns start values for the specified collection: every LinkedDocument, that was already contained, starts
+    //with its last PageRank, every new one with 1 / n. The values are scaled to sum up to 1 like the initial values.
+    double[] warmStart(LinkedDocumentCollection ldc) {
+      HashMap<String, Double> lastPageRanks = new HashMap<>();
+      for (int i = 0; i < this.ids.length; i++) {
+        lastPageRanks.put(this.ids[i], this.pageRanks[i]);
+      }
+
+      int n = ldc.numDocuments();
+      double[] start = new double[n];
+      double sum = 0;
+      for (int i = 0; i < n; i++) {
+        Double pageRank = lastPageRanks.get(((LinkedDocument) ldc.get(i)).getID());
+        start[i] = (pageRank == null) ? 1.0d / n : pageRank;
+        sum += start[i];
+      }
+
+      if (sum <= 0) {
+        return ldc.initPageRanks();
+      }
+      for (int i = 0; i < n; i++) {
+        start[i] /= sum;
+      }
+      return start;
+    }
   }
 }
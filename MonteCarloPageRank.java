@@ -0,0 +1,137 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+//This class approximates PageRank values with random walks: from every document, a number of walks is started. In
+//every step, a walk stops with probability 1 - dampingFactor; otherwise it follows a random outgoing link, or, from a
+//dangling document, jumps to a random other document. A walk also stops, when it follows a link leaving the
+//collection. The PageRank of a document is estimated from the number of visits of all walks:
+//(1 - dampingFactor) * visits / (n * walksPerNode). The expected value is the exact PageRank, if no document links
+//outside of the collection, and the error shrinks with the square root of walksPerNode.
+//The walks are independent, so they are distributed over the threads of a ForkJoinPool. Every block of start
+//documents has its own random generator derived from the seed, so the result does not depend on the scheduling.
+//Every thread counts the visits of its walks in its own array, so the memory needed is n longs per thread, and the
+//arrays are added once at the end. Every instance keeps its pool for all of its calculations; its threads end, when
+//they have been idle for a while.
+public class MonteCarloPageRank {
+  //the number of blocks of start documents per thread
+  private static final int BLOCKS_PER_THREAD = 4;
+
+  //the number of walks started from every document
+  private final int walksPerNode;
+
+  //the number of threads of the ForkJoinPool
+  private final int parallelism;
+
+  //the pool running the walks
+  private final ForkJoinPool pool;
+
+  //the seed of the random generators
+  private final long seed;
+
+  //Creates a new instance, that starts the specified number of walks from every document using the specified number
+  //of threads. Values of parallelism smaller than 1 mean the number of available processors.
+  public MonteCarloPageRank(int walksPerNode, int parallelism, long seed) {
+    if (parallelism < 1) {
+      parallelism = Runtime.getRuntime().availableProcessors();
+    }
+    this.walksPerNode = Math.max(walksPerNode, 1);
+    this.parallelism = parallelism;
+    this.pool = new ForkJoinPool(parallelism);
+    this.seed = seed;
+  }
+
+  //Returns the number of walks started from every document.
+  public int getWalksPerNode() {
+    return this.walksPerNode;
+  }
+
+  //Approximates the PageRank values of all documents of the specified graph.
+  public double[] compute(LinkGraph graph, double dampingFactor) {
+    int n = graph.numNodes();
+    if (n == 0) {
+      return new double[0];
+    }
+
+    int blockSize = Math.max(n / (this.parallelism * BLOCKS_PER_THREAD), 1);
+    ConcurrentHashMap<Thread, long[]> visitsByThread = new ConcurrentHashMap<>();
+    this.pool.invoke(new WalksTask(graph, dampingFactor, visitsByThread, 0, n, blockSize));
+
+    long[] visits = new long[n];
+    for (long[] threadVisits : visitsByThread.values()) {
+      for (int i = 0; i < n; i++) {
+        visits[i] += threadVisits[i];
+      }
+    }
+
+    double[] pageRanks = new double[n];
+    double scale = (1 - dampingFactor) / ((double) n * this.walksPerNode);
+    for (int i = 0; i < n; i++) {
+      pageRanks[i] = visits[i] * scale;
+    }
+    return pageRanks;
+  }
+
+  //Runs the walks starting from a range of documents and adds the visits to the array of the current thread.
+  private class WalksTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final LinkGraph graph;
+    private final double dampingFactor;
+    private final ConcurrentHashMap<Thread, long[]> visitsByThread;
+    private final int from;
+    private final int to;
+    private final int blockSize;
+
+    WalksTask(LinkGraph graph, double dampingFactor, ConcurrentHashMap<Thread, long[]> visitsByThread, int from,
+        int to, int blockSize) {
+      this.graph = graph;
+      this.dampingFactor = dampingFactor;
+      this.visitsByThread = visitsByThread;
+      this.from = from;
+      this.to = to;
+      this.blockSize = blockSize;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from > this.blockSize) {
+        int middle = (this.from + this.to) >>> 1;
+        invokeAll(
+            new WalksTask(this.graph, this.dampingFactor, this.visitsByThread, this.from, middle, this.blockSize),
+            new WalksTask(this.graph, this.dampingFactor, this.visitsByThread, middle, this.to, this.blockSize));
+        return;
+      }
+
+      int n = this.graph.numNodes();
+      long[] visits = this.visitsByThread.computeIfAbsent(Thread.currentThread(), thread -> new long[n]);
+      /* different seeds must not lead to overlapping streams of neighbouring blocks */
+      SplittableRandom random = new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (this.from + 1)));
+
+      for (int start = this.from; start < this.to; start++) {
+        for (int walk = 0; walk < walksPerNode; walk++) {
+          int node = start;
+          while (node >= 0) {
+            visits[node]++;
+            if (random.nextDouble() >= this.dampingFactor) {
+              node = -1;
+            } else if (this.graph.isDangling(node)) {
+              /* jump to a random other document */
+              if (n > 1) {
+                int next = random.nextInt(n - 1);
+                node = (next >= node) ? next + 1 : next;
+              } else {
+                node = -1;
+              }
+            } else {
+              /* links leaving the collection end the walk */
+              int k = random.nextInt(this.graph.getOutDegree(node));
+              node = (k < this.graph.getNumLinks(node)) ? this.graph.getLink(node, k) : -1;
+            }
+          }
+        }
+      }
+    }
+  }
+}
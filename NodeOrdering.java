@@ -0,0 +1,10 @@
+//This enum represents the strategies, with which LinkGraph.localityOrder renumbers the documents, so that the values
+//of linked documents are stored close to each other in memory during the link analysis.
+public enum NodeOrdering {
+  //breadth-first search following the links in both directions, starting from the document with the most incoming
+  //links not visited yet; linked documents get close numbers
+  BFS,
+
+  //descending by the number of incoming links, so the values read most often share few cache lines
+  DEGREE;
+}
@@ -0,0 +1,45 @@
+//This class represents the result of a PageRankSolver: the PageRank values and how they were calculated.
+public class PageRankResult {
+  private final double[] pageRanks;
+  private final int numIterations;
+  private final double[] residuals;
+  private final long wallTime;
+
+  //Creates a new result with the specified values. residuals contains the change of the values in every iteration.
+  public PageRankResult(double[] pageRanks, int numIterations, double[] residuals, long wallTime) {
+    this.pageRanks = pageRanks;
+    this.numIterations = numIterations;
+    this.residuals = residuals;
+    this.wallTime = wallTime;
+  }
+
+  //Returns the PageRank values.
+  public double[] getPageRanks() {
+    return pageRanks.clone();
+  }
+
+  //Returns the number of iterations needed.
+  public int getNumIterations() {
+    return numIterations;
+  }
+
+  //Returns the change of the values in every iteration, measured in the norm of the solver.
+  public double[] getResiduals() {
+    return residuals.clone();
+  }
+
+  //Returns the change of the values in the last iteration or 0, if there was no iteration.
+  public double getResidual() {
+    return residuals.length == 0 ? 0 : residuals[residuals.length - 1];
+  }
+
+  //Returns the time the calculation took in nanoseconds.
+  public long getWallTime() {
+    return wallTime;
+  }
+
+  //Returns a brief string representation of this result
+  public String toString() {
+    return numIterations + " Iterationen, Residuum " + getResidual() + ", " + (wallTime / 1000000.0) + " ms";
+  }
+}
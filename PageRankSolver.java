@@ -0,0 +1,8 @@
+//This interface represents an algorithm, that calculates the PageRank values of the documents of a LinkGraph.
+//A LinkedDocumentCollection uses the solver set with setPageRankSolver.
+public interface PageRankSolver {
+
+  //Calculates the PageRank values of all documents of the specified graph, starting with the specified values, which
+  //are not changed.
+  PageRankResult solve(LinkGraph graph, double dampingFactor, double[] start);
+}
@@ -0,0 +1,207 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+//This class calculates PageRank values by power iteration on a ForkJoinPool with a configurable number of threads.
+//Every iteration splits the documents into blocks of rows, which are calculated in parallel: a document pulls the
+//shares of the documents linking to it, so no two threads write the same value. The maximum change of a value, which
+//decides whether the iteration has converged, is reduced over the blocks in the same pass. The time of every
+//iteration is recorded.
+//As a PageRankSolver, it stops, when no value changes by more than its epsilon any more.
+//Every instance keeps its pool for all of its calculations; its threads end, when they have been idle for a while.
+public class ParallelPageRank implements PageRankSolver {
+  //the number of documents, below which a block of rows is not split any further
+  private static final int BLOCK_SIZE = 2048;
+
+  //the number of threads of the ForkJoinPool
+  private final int parallelism;
+
+  //the pool calculating the blocks of rows
+  private final ForkJoinPool pool;
+
+  //the stopping rule of solve: no value changes by more than epsilon
+  private final double epsilon;
+
+  //the times of the iterations of the last calculation in nanoseconds
+  private long[] iterationTimes;
+
+  //Creates a new instance using the specified number of threads, whose solve method stops at
+  //LinkedDocumentCollection.PAGERANK_EPS. Values smaller than 1 mean the number of available processors.
+  public ParallelPageRank(int parallelism) {
+    this(parallelism, LinkedDocumentCollection.PAGERANK_EPS);
+  }
+
+  //Creates a new instance using the specified number of threads, whose solve method stops, when no value changes by
+  //more than epsilon any more. Values of parallelism smaller than 1 mean the number of available processors.
+  public ParallelPageRank(int parallelism, double epsilon) {
+    if (parallelism < 1) {
+      parallelism = Runtime.getRuntime().availableProcessors();
+    }
+    this.parallelism = parallelism;
+    this.pool = new ForkJoinPool(parallelism);
+    this.epsilon = epsilon;
+    this.iterationTimes = new long[0];
+  }
+
+  //Returns the number of threads used.
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  //Returns the time of every iteration of the last calculation in nanoseconds.
+  public synchronized long[] getIterationTimes() {
+    return this.iterationTimes.clone();
+  }
+
+  //Returns the number of iterations of the last calculation.
+  public synchronized int getNumIterations() {
+    return this.iterationTimes.length;
+  }
+
+  //Calculates the PageRank values of all documents of the specified graph, starting with 1 / n for every document.
+  //The iteration stops, when no value changes by more than epsilon any more.
+  public double[] compute(LinkGraph graph, double dampingFactor, double epsilon) {
+    double[] start = new double[graph.numNodes()];
+    Arrays.fill(start, 1.0d / start.length);
+    return this.compute(graph, dampingFactor, epsilon, start).getPageRanks();
+  }
+
+  //Calculates the PageRank values of all documents of the specified graph, starting with the specified values.
+  public PageRankResult solve(LinkGraph graph, double dampingFactor, double[] start) {
+    return this.compute(graph, dampingFactor, this.epsilon, start);
+  }
+
+  //Calculates the PageRank values starting with the specified values, which are not changed. The maximum change of
+  //every iteration is reported as its residual.
+  private PageRankResult compute(LinkGraph graph, double dampingFactor, double epsilon, double[] start) {
+    long startTime = System.nanoTime();
+    int n = graph.numNodes();
+    if (n == 0) {
+      return new PageRankResult(new double[0], 0, new double[0], System.nanoTime() - startTime);
+    }
+
+    double[] ranks = start.clone();
+    double[] newRanks = new double[n];
+    double[] shares = new double[n];
+    long[] times = new long[16];
+    double[] changes = new double[16];
+    int iterations = 0;
+
+    double maxChange;
+    do {
+      long iterationStart = System.nanoTime();
+
+      double[] sums = this.pool.invoke(new SharesTask(graph, ranks, shares, 0, n));
+      double teleport = (1 - dampingFactor) / n * sums[0];
+      maxChange = this.pool.invoke(new RowsTask(graph, ranks, shares, newRanks, dampingFactor, teleport, sums[1], 0,
+          n));
+
+      double[] tmp = ranks;
+      ranks = newRanks;
+      newRanks = tmp;
+
+      if (iterations == times.length) {
+        times = Arrays.copyOf(times, 2 * iterations);
+        changes = Arrays.copyOf(changes, 2 * iterations);
+      }
+      changes[iterations] = maxChange;
+      times[iterations++] = System.nanoTime() - iterationStart;
+    } while (maxChange > epsilon);
+
+    synchronized (this) {
+      this.iterationTimes = Arrays.copyOf(times, iterations);
+    }
+    return new PageRankResult(ranks, iterations, Arrays.copyOf(changes, iterations), System.nanoTime() - startTime);
+  }
+
+  //Calculates the shares ranks[j] / outDegree(j) of a range of documents and returns the sum of their ranks and the
+  //sum of the ranks of the dangling documents among them.
+  private static class SharesTask extends RecursiveTask<double[]> {
+    private static final long serialVersionUID = 1L;
+
+    private final LinkGraph graph;
+    private final double[] ranks;
+    private final double[] shares;
+    private final int from;
+    private final int to;
+
+    SharesTask(LinkGraph graph, double[] ranks, double[] shares, int from, int to) {
+      this.graph = graph;
+      this.ranks = ranks;
+      this.shares = shares;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected double[] compute() {
+      if (this.to - this.from > BLOCK_SIZE) {
+        int middle = (this.from + this.to) >>> 1;
+        SharesTask left = new SharesTask(this.graph, this.ranks, this.shares, this.from, middle);
+        left.fork();
+        double[] right = new SharesTask(this.graph, this.ranks, this.shares, middle, this.to).compute();
+        double[] sums = left.join();
+        sums[0] += right[0];
+        sums[1] += right[1];
+        return sums;
+      }
+
+      double sum = 0;
+      double danglingSum = 0;
+      for (int j = this.from; j < this.to; j++) {
+        sum += this.ranks[j];
+        if (this.graph.isDangling(j)) {
+          danglingSum += this.ranks[j];
+          this.shares[j] = 0;
+        } else {
+          this.shares[j] = this.ranks[j] / this.graph.getOutDegree(j);
+        }
+      }
+      return new double[] { sum, danglingSum };
+    }
+  }
+
+  //Calculates a range of rows of one iteration and returns the maximum change of a value in the range.
+  private static class RowsTask extends RecursiveTask<Double> {
+    private static final long serialVersionUID = 1L;
+
+    private final LinkGraph graph;
+    private final double[] ranks;
+    private final double[] shares;
+    private final double[] result;
+    private final double dampingFactor;
+    private final double teleport;
+    private final double danglingSum;
+    private final int from;
+    private final int to;
+
+    RowsTask(LinkGraph graph, double[] ranks, double[] shares, double[] result, double dampingFactor, double teleport,
+        double danglingSum, int from, int to) {
+      this.graph = graph;
+      this.ranks = ranks;
+      this.shares = shares;
+      this.result = result;
+      this.dampingFactor = dampingFactor;
+      this.teleport = teleport;
+      this.danglingSum = danglingSum;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Double compute() {
+      if (this.to - this.from > BLOCK_SIZE) {
+        int middle = (this.from + this.to) >>> 1;
+        RowsTask left = new RowsTask(this.graph, this.ranks, this.shares, this.result, this.dampingFactor,
+            this.teleport, this.danglingSum, this.from, middle);
+        left.fork();
+        double right = new RowsTask(this.graph, this.ranks, this.shares, this.result, this.dampingFactor,
+            this.teleport, this.danglingSum, middle, this.to).compute();
+        return Math.max(left.join(), right);
+      }
+
+      return this.graph.pageRankRows(this.ranks, this.shares, this.result, this.dampingFactor, this.teleport,
+          this.danglingSum, this.from, this.to);
+    }
+  }
+}
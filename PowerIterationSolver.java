@@ -0,0 +1,20 @@
+//This class calculates PageRank values by power iteration: every iteration multiplies the values with the matrix
+//M = dampingFactor * A + (1 - dampingFactor) / n.
+public class PowerIterationSolver extends IterativePageRankSolver {
+
+  //Creates a new solver with the specified stopping rule.
+  public PowerIterationSolver(double epsilon, ResidualNorm norm) {
+    super(epsilon, norm);
+  }
+
+  //Creates a new solver with the specified stopping rule, that stops after maxIterations iterations.
+  public PowerIterationSolver(double epsilon, ResidualNorm norm, int maxIterations) {
+    super(epsilon, norm, maxIterations);
+  }
+
+  @Override
+  protected double[] iterate(LinkGraph graph, double[][] previous, double[] pageRanks, double dampingFactor,
+      int iteration) {
+    return graph.pageRankStep(pageRanks, dampingFactor);
+  }
+}
@@ -0,0 +1,22 @@
+//This enum represents the norms, with which a PageRankSolver measures the change of the PageRank values in one
+//iteration. The iteration stops, when the change is not larger than the epsilon of the solver.
+public enum ResidualNorm {
+  //the largest change of a single value
+  MAX,
+
+  //the sum of the changes of all values
+  L1;
+
+  //Returns the distance of the specified vectors in this norm.
+  public double distance(double[] a, double[] b) {
+    double distance = 0;
+    for (int i = 0; i < a.length; i++) {
+      if (this == MAX) {
+        distance = Math.max(distance, Math.abs(a[i] - b[i]));
+      } else {
+        distance += Math.abs(a[i] - b[i]);
+      }
+    }
+    return distance;
+  }
+}
@@ -0,0 +1,53 @@
+//This class represents a single result of a query: a Document and the scores it achieved.
+public class SearchResult {
+  private final Document document;
+  private final double similarity;
+  private final double pageRank;
+  private final double authority;
+  private final double relevance;
+
+  //Creates a new result with the specified values and no HITS authority.
+  public SearchResult(Document document, double similarity, double pageRank, double relevance) {
+    this(document, similarity, pageRank, 0, relevance);
+  }
+
+  //Creates a new result with the specified values.
+  public SearchResult(Document document, double similarity, double pageRank, double authority, double relevance) {
+    this.document = document;
+    this.similarity = similarity;
+    this.pageRank = pageRank;
+    this.authority = authority;
+    this.relevance = relevance;
+  }
+
+  //Returns the found Document.
+  public Document getDocument() {
+    return document;
+  }
+
+  //Returns the similarity of the Document and the query.
+  public double getSimilarity() {
+    return similarity;
+  }
+
+  //Returns the PageRank of the Document or 0, if no PageRank was calculated.
+  public double getPageRank() {
+    return pageRank;
+  }
+
+  //Returns the HITS authority of the Document or 0, if no authority was calculated (see
+  //LinkedDocumentCollection.hitsMatch).
+  public double getAuthority() {
+    return authority;
+  }
+
+  //Returns the relevance of the Document, that was used to rank the results.
+  public double getRelevance() {
+    return relevance;
+  }
+
+  //Returns a brief string representation of this result
+  public String toString() {
+    return document.getTitle() + "; Relevanz: " + relevance;
+  }
+}
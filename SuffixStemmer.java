@@ -0,0 +1,121 @@
+import java.util.Arrays;
+
+//This class reduces words to their stem by cutting off the longest suffix of a list of suffixes.
+//The suffixes are compiled once into a trie of their reversed characters, so the longest matching suffix is found in
+//a single backwards walk over the word, independent of the number of suffixes. The stem is returned as the length of
+//the leading part of the word, so no characters are copied.
+public class SuffixStemmer {
+
+  //the nodes of the trie; node 0 is the root. Every node stores the character of the edge leading to it, its first
+  //child and its next sibling (-1 if there is none) and whether a suffix ends at the node.
+  private char[] labels;
+  private int[] firstChild;
+  private int[] nextSibling;
+  private boolean[] suffixEnds;
+  private int numNodes;
+
+  //Compiles the specified suffixes. null and empty suffixes are ignored, the suffixes are compared lower-cased.
+  public SuffixStemmer(String[] suffixes) {
+    this.labels = new char[16];
+    this.firstChild = new int[16];
+    this.nextSibling = new int[16];
+    this.suffixEnds = new boolean[16];
+    this.numNodes = 0;
+    this.newNode('\0');
+
+    if (suffixes != null) {
+      for (int i = 0; i < suffixes.length; i++) {
+        if (suffixes[i] != null && !suffixes[i].equals("")) {
+          this.insert(suffixes[i].toLowerCase());
+        }
+      }
+    }
+  }
+
+  //Creates a stemmer for the suffixes in the specified file, one suffix per line.
+  //Returns null, if the file cannot be read.
+  public static SuffixStemmer createFromFile(String fileName) {
+    String[] suffixes = Terminal.readFile(fileName);
+    if (suffixes == null) {
+      return null;
+    }
+
+    for (int i = 0; i < suffixes.length; i++) {
+      suffixes[i] = suffixes[i].trim();
+    }
+    return new SuffixStemmer(suffixes);
+  }
+
+  //Appends a new node with the specified label to the trie and returns its number.
+  private int newNode(char label) {
+    if (this.numNodes == this.labels.length) {
+      int newLength = this.numNodes * 2;
+      this.labels = Arrays.copyOf(this.labels, newLength);
+      this.firstChild = Arrays.copyOf(this.firstChild, newLength);
+      this.nextSibling = Arrays.copyOf(this.nextSibling, newLength);
+      this.suffixEnds = Arrays.copyOf(this.suffixEnds, newLength);
+    }
+
+    this.labels[this.numNodes] = label;
+    this.firstChild[this.numNodes] = -1;
+    this.nextSibling[this.numNodes] = -1;
+    this.suffixEnds[this.numNodes] = false;
+    return this.numNodes++;
+  }
+
+  //Returns the child of the specified node with the specified label or -1, if there is none.
+  private int findChild(int node, char label) {
+    int child = this.firstChild[node];
+    while (child != -1 && this.labels[child] != label) {
+      child = this.nextSibling[child];
+    }
+    return child;
+  }
+
+  //Inserts the specified suffix, starting with its last character.
+  private void insert(String suffix) {
+    int node = 0;
+    for (int i = suffix.length() - 1; i >= 0; i--) {
+      int child = this.findChild(node, suffix.charAt(i));
+      if (child == -1) {
+        child = this.newNode(suffix.charAt(i));
+        this.nextSibling[child] = this.firstChild[node];
+        this.firstChild[node] = child;
+      }
+      node = child;
+    }
+    this.suffixEnds[node] = true;
+  }
+
+  //Returns the length of the longest suffix, that the word in the specified range of the buffer ends with,
+  //or 0, if it does not end with any suffix. A suffix may be as long as the word itself.
+  public int findSuffixLength(char[] buffer, int start, int length) {
+    int longest = 0;
+    int node = 0;
+
+    for (int i = 1; i <= length; i++) {
+      node = this.findChild(node, buffer[start + length - i]);
+      if (node == -1) {
+        break;
+      }
+      if (this.suffixEnds[node]) {
+        longest = i;
+      }
+    }
+
+    return longest;
+  }
+
+  //Returns the length of the stem of the word in the specified range of the buffer.
+  public int stemLength(char[] buffer, int start, int length) {
+    return length - this.findSuffixLength(buffer, start, length);
+  }
+
+  //Returns the stem of the specified word.
+  public String stem(String word) {
+    if (word == null) {
+      return null;
+    }
+    return word.substring(0, this.stemLength(word.toCharArray(), 0, word.length()));
+  }
+}
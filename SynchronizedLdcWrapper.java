@@ -1,38 +1,77 @@
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
+//Wraps a LinkedDocumentCollection, so it can be shared by several threads. Reading operations (including queries,
+//which do not change the collection) may run concurrently, changing operations run exclusively.
 public class SynchronizedLdcWrapper {
   private LinkedDocumentCollection ldc;
   
   private final double pageRankDampingFactor = 0.85;
   private final double weightingFactor = 0.6;
 
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
   public SynchronizedLdcWrapper() {
     this.ldc = new LinkedDocumentCollection();
   }
   
-  public synchronized void appendDocument(LinkedDocument doc) {
-    ldc.appendDocument(doc);
+  public void appendDocument(LinkedDocument doc) {
+    lock.writeLock().lock();
+    try {
+      ldc.appendDocument(doc);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+  
+  public void forEach(Consumer<Document> cb) {
+    lock.readLock().lock();
+    try {
+      for (Document doc : ldc)
+        cb.accept(doc);
+    } finally {
+      lock.readLock().unlock();
+    }
   }
   
-  public synchronized void forEach(Consumer<Document> cb) {
-    for (int i = 0; i < ldc.numDocuments(); i++)
-      cb.accept(ldc.get(i));
+  public void query(String query, BiConsumer<Document, Double> cb) {
+    lock.readLock().lock();
+    try {
+      for (SearchResult result : ldc.query(query, pageRankDampingFactor, weightingFactor))
+        cb.accept(result.getDocument(), result.getRelevance());
+    } finally {
+      lock.readLock().unlock();
+    }
   }
   
-  public synchronized void query(String query, BiConsumer<Document, Double> cb) {
-    double[] relevance = ldc.match(query, pageRankDampingFactor, weightingFactor);
-    for (int i = 0; i < ldc.numDocuments(); i++)
-      cb.accept(ldc.get(i), relevance[i]);
+  public void documentFrequency(String word, BiConsumer<Integer, Integer> cb) {
+    lock.readLock().lock();
+    try {
+      cb.accept(ldc.noOfDocumentsContainingWord(word), ldc.numDocuments());
+    } finally {
+      lock.readLock().unlock();
+    }
   }
   
-  public synchronized void pageRank(BiConsumer<Document, Double> cb) {
-    double[] pageRanks = ldc.pageRank(pageRankDampingFactor);
-    for (int i = 0; i < ldc.numDocuments(); i++)
-      cb.accept(ldc.get(i), pageRanks[i]);
+  public void pageRank(BiConsumer<Document, Double> cb) {
+    lock.readLock().lock();
+    try {
+      double[] pageRanks = ldc.pageRank(pageRankDampingFactor);
+      for (int i = 0; i < ldc.numDocuments(); i++)
+        cb.accept(ldc.get(i), pageRanks[i]);
+    } finally {
+      lock.readLock().unlock();
+    }
   }
   
-  public synchronized void crawl() {
-    ldc = ldc.crawl();
+  public void crawl() {
+    lock.writeLock().lock();
+    try {
+      ldc = ldc.crawl();
+    } finally {
+      lock.writeLock().unlock();
+    }
   }
 }
@@ -0,0 +1,177 @@
+import java.util.Arrays;
+
+//This class represents the dictionary of all terms known to the search engine. Every normalized term is assigned a
+//dense int ID (0, 1, 2, ...), so that documents can store their words as primitive term IDs instead of Strings.
+//There is only one instance, which is shared by all WordCountsArrays.
+//Terms can be looked up directly from a char buffer (e.g. the one of a Tokenizer), so known terms are found without
+//creating a String.
+//The dictionary is shared by all threads parsing documents, so finding a known term does not lock: a new term is
+//written into the arrays before the size is increased, and the arrays are replaced before the size is published, so a
+//reader, that reads the size first, sees every term with a smaller ID completely. IDs at or above that size are
+//treated as unknown. Only adding a new term locks the dictionary, and it searches the table again under the lock.
+public final class TermDictionary {
+
+  //the single instance of this class
+  private static final TermDictionary INSTANCE = new TermDictionary();
+
+  //open addressing hash table (linear probing); an entry stores ID + 1, so 0 marks an empty entry.
+  //The table is at most half full.
+  private volatile int[] table;
+
+  //the term of every ID
+  private volatile String[] terms;
+
+  //the hash code of every term
+  private volatile int[] hashes;
+
+  //the number of known terms; it is written last, when a term is added
+  private volatile int size;
+
+  //Private constructor, use getInstance()
+  private TermDictionary() {
+    this.table = new int[32];
+    this.terms = new String[16];
+    this.hashes = new int[16];
+    this.size = 0;
+  }
+
+  //Returns the dictionary shared by all WordCountsArrays.
+  public static TermDictionary getInstance() {
+    return INSTANCE;
+  }
+
+  //Returns the ID of the specified term. If the term is not known yet, a new ID is assigned to it.
+  public int getID(String term) {
+    return this.getID(term.toCharArray(), 0, term.length());
+  }
+
+  //Returns the ID of the term in the specified range of the specified buffer. If the term is not known yet, a new ID
+  //is assigned to it.
+  public int getID(char[] buffer, int offset, int length) {
+    int hash = hash(buffer, offset, length);
+    int id = this.find(hash, buffer, offset, length);
+    return id >= 0 ? id : this.add(hash, buffer, offset, length);
+  }
+
+  //Assigns a new ID to the term in the specified range of the buffer, unless another thread has added it since it was
+  //not found, and returns its ID.
+  private synchronized int add(int hash, char[] buffer, int offset, int length) {
+    int[] table = this.table;
+    int mask = table.length - 1;
+    int pos = spread(hash) & mask;
+
+    while (table[pos] != 0) {
+      int id = table[pos] - 1;
+      if (this.hashes[id] == hash && equals(this.terms[id], buffer, offset, length)) {
+        return id;
+      }
+      pos = (pos + 1) & mask;
+    }
+
+    int id = this.size;
+    if (id == this.terms.length) {
+      this.terms = Arrays.copyOf(this.terms, id * 2);
+      this.hashes = Arrays.copyOf(this.hashes, id * 2);
+    }
+    this.terms[id] = new String(buffer, offset, length);
+    this.hashes[id] = hash;
+    table[pos] = id + 1;
+
+    if (2 * (id + 1) > table.length) {
+      this.rehash(id + 1);
+    }
+
+    this.size = id + 1;
+    return id;
+  }
+
+  //Returns the ID of the specified term or -1, if the term is not known.
+  public int lookup(String term) {
+    return this.lookup(term.toCharArray(), 0, term.length());
+  }
+
+  //Returns the ID of the term in the specified range of the specified buffer or -1, if the term is not known.
+  public int lookup(char[] buffer, int offset, int length) {
+    return this.find(hash(buffer, offset, length), buffer, offset, length);
+  }
+
+  //Returns the term with the specified ID or null, if there is no such term.
+  public String getTerm(int id) {
+    if (id < 0 || id >= this.size) {
+      return null;
+    }
+    return this.terms[id];
+  }
+
+  //Returns the number of known terms. Every term ID is smaller than this number.
+  public int size() {
+    return this.size;
+  }
+
+  //Calculates the hash code of the specified range of the buffer; it is the same as String.hashCode().
+  private static int hash(char[] buffer, int offset, int length) {
+    int hash = 0;
+    for (int i = offset; i < offset + length; i++) {
+      hash = 31 * hash + buffer[i];
+    }
+    return hash;
+  }
+
+  //Spreads the bits of the specified hash code. Similar terms have similar hash codes, which would form long runs of
+  //occupied entries in the table otherwise.
+  private static int spread(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  //Returns the ID of the specified term or -1, if it is not known, without locking. The size is read before the
+  //arrays, so the terms of all IDs below it are visible; entries with other IDs are being added and are skipped.
+  private int find(int hash, char[] buffer, int offset, int length) {
+    int size = this.size;
+    int[] table = this.table;
+    String[] terms = this.terms;
+    int[] hashes = this.hashes;
+    int mask = table.length - 1;
+    int pos = spread(hash) & mask;
+
+    int entry;
+    while ((entry = table[pos]) != 0) {
+      int id = entry - 1;
+      if (id < size && hashes[id] == hash && equals(terms[id], buffer, offset, length)) {
+        return id;
+      }
+      pos = (pos + 1) & mask;
+    }
+
+    return -1;
+  }
+
+  //Returns true, if the specified term equals the specified range of the buffer.
+  private static boolean equals(String term, char[] buffer, int offset, int length) {
+    if (term.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (term.charAt(i) != buffer[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  //Replaces the table by one of twice the size, that contains the specified number of terms. The new table is filled
+  //completely, before it is published.
+  private void rehash(int numTerms) {
+    int[] table = new int[this.table.length * 2];
+    int mask = table.length - 1;
+
+    for (int id = 0; id < numTerms; id++) {
+      int pos = spread(this.hashes[id]) & mask;
+      while (table[pos] != 0) {
+        pos = (pos + 1) & mask;
+      }
+      table[pos] = id + 1;
+    }
+    this.table = table;
+  }
+}
@@ -1,3 +1,5 @@
+import java.util.List;
+
 public class TestIt {
 
   public static void main(String[] args) {
@@ -25,18 +27,18 @@ public class TestIt {
         ldc.appendDocument(new LinkedDocument(title, "", "", null, null, text, title));
       } else if (command.startsWith("list")) {
         // list all document in collection
-        for (int i = 0; i < ldc.numDocuments(); i++) {
-          System.out.println(ldc.get(i).getTitle());
+        for (Document doc : ldc) {
+          System.out.println(doc.getTitle());
         }
       } else if (command.startsWith("query ")) {
         // query on the documents in the collection
         String query = command.substring(6);
 
-        double[] relevance = ldc.match(query, pageRankDampingFactor, weightingFactor);
+        List<SearchResult> results = ldc.query(query, pageRankDampingFactor, weightingFactor);
         
         String msg = "";
-        for (int i = 0; i < ldc.numDocuments(); i++) {
-          msg = (i + 1) + ". " + ldc.get(i).getTitle() + "; Relevanz: " + relevance[i];
+        for (int i = 0; i < results.size(); i++) {
+          msg = (i + 1) + ". " + results.get(i).getDocument().getTitle() + "; Relevanz: " + results.get(i).getRelevance();
           System.out.println(msg);
         }
 
@@ -45,8 +47,7 @@ public class TestIt {
         // print the count of a word in each document
         String word = command.substring(6);
 
-        for (int i = 0; i < ldc.numDocuments(); i++) {
-          Document doc = ldc.get(i);
+        for (Document doc : ldc) {
           WordCountsArray docWordCounts = doc.getWordCounts();
 
           int count = docWordCounts.getCount(docWordCounts.getIndexOfWord(word));
@@ -57,6 +58,8 @@ public class TestIt {
             System.out.println(doc.getTitle() + ": " + count + "x ");
           }
         }
+
+        System.out.println("In " + ldc.noOfDocumentsContainingWord(word) + " von " + ldc.numDocuments() + " Dokumenten.");
       } else if (command.startsWith("pageRank")) {
         double[] pageRanks = ldc.pageRank(pageRankDampingFactor);
 
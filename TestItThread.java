@@ -85,6 +85,10 @@ public class TestItThread extends Thread {
               out.println(doc.getTitle() + ": " + count + "x ");
             }
           });
+
+          slw.documentFrequency(word, (df, n) -> {
+            out.println("In " + df + " von " + n + " Dokumenten.");
+          });
         } else if (command.startsWith("pageRank")) {
           slw.pageRank((doc, pageRank) -> {
             out.println(doc.getTitle() + "; PageRank: " + pageRank);
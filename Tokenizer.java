@@ -0,0 +1,97 @@
+//This class splits a text into lower-cased tokens in a single pass over a char buffer.
+//Tokens are not copied into Strings: after next() returned true, the current token is the range
+//[getTokenStart(), getTokenStart() + getTokenLength()) of getBuffer().
+//
+//Every character belongs to one of three classes:
+// - word characters (letters and digits) always belong to a token,
+// - joining punctuation (. : - _ / ' @) belongs to a token only between two word characters, so that links like
+//   "link:A.txt" or words like "e-mail" stay intact, while "tag.." becomes "tag",
+// - everything else (whitespace and all other punctuation) separates tokens.
+public class Tokenizer {
+  //the lower-cased text
+  private final char[] buffer;
+
+  //the position, where the search for the next token starts
+  private int pos;
+
+  //the current token
+  private int tokenStart;
+  private int tokenLength;
+
+  //Creates a new Tokenizer for the specified text.
+  public Tokenizer(String text) {
+    if (text == null) {
+      text = "";
+    }
+
+    this.buffer = new char[text.length()];
+    text.getChars(0, text.length(), this.buffer, 0);
+    this.pos = 0;
+    this.tokenStart = 0;
+    this.tokenLength = 0;
+  }
+
+  //Returns true, if the specified character always belongs to a token.
+  private static boolean isWordChar(char c) {
+    if (c < 128) {
+      return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+    return Character.isLetterOrDigit(c);
+  }
+
+  //Returns true, if the specified character belongs to a token, if it is surrounded by word characters.
+  private static boolean isJoiningChar(char c) {
+    return c == '.' || c == ':' || c == '-' || c == '_' || c == '/' || c == '\'' || c == '@';
+  }
+
+  //Advances to the next token and returns true, if there is one.
+  public boolean next() {
+    int length = this.buffer.length;
+
+    /* skip everything up to the next word character */
+    while (this.pos < length && !isWordChar(this.buffer[this.pos])) {
+      this.pos++;
+    }
+
+    if (this.pos == length) {
+      this.tokenLength = 0;
+      return false;
+    }
+
+    this.tokenStart = this.pos;
+    while (this.pos < length) {
+      char c = this.buffer[this.pos];
+      if (isWordChar(c)) {
+        this.buffer[this.pos] = c < 128 ? (c >= 'A' && c <= 'Z' ? (char) (c + 32) : c) : Character.toLowerCase(c);
+        this.pos++;
+      } else if (isJoiningChar(c) && this.pos + 1 < length && isWordChar(this.buffer[this.pos + 1])) {
+        this.pos++;
+      } else {
+        break;
+      }
+    }
+    this.tokenLength = this.pos - this.tokenStart;
+
+    return true;
+  }
+
+  //Returns the buffer containing the lower-cased text.
+  public char[] getBuffer() {
+    return this.buffer;
+  }
+
+  //Returns the start of the current token in the buffer.
+  public int getTokenStart() {
+    return this.tokenStart;
+  }
+
+  //Returns the length of the current token.
+  public int getTokenLength() {
+    return this.tokenLength;
+  }
+
+  //Returns the current token as a String.
+  public String getToken() {
+    return new String(this.buffer, this.tokenStart, this.tokenLength);
+  }
+}
@@ -0,0 +1,105 @@
+import java.util.Arrays;
+
+//This class selects the k entries with the highest scores from a sequence of (id, score) pairs.
+//It is a bounded binary min-heap: the root is the worst entry kept so far, so an entry that does not belong to the
+//best k is rejected in O(1) and every other entry is inserted in O(log k). Of two entries with the same score, the one
+//with the smaller id is considered better.
+public class TopKHeap {
+  private int[] ids;
+  private double[] scores;
+  private int size;
+  private final int k;
+
+  //Creates an empty heap, that keeps the best k entries.
+  public TopKHeap(int k) {
+    this.k = Math.max(k, 0);
+    this.ids = new int[Math.min(this.k, 16)];
+    this.scores = new double[this.ids.length];
+    this.size = 0;
+  }
+
+  //Offers the specified entry to this heap. It is kept, if it is among the best k entries so far.
+  public void offer(int id, double score) {
+    if (this.k == 0) {
+      return;
+    }
+
+    if (this.size < this.k) {
+      if (this.size == this.ids.length) {
+        int newLength = (int) Math.min((long) this.k, 2L * this.ids.length);
+        this.ids = Arrays.copyOf(this.ids, newLength);
+        this.scores = Arrays.copyOf(this.scores, newLength);
+      }
+      this.ids[this.size] = id;
+      this.scores[this.size] = score;
+      this.size++;
+      this.siftUp(this.size - 1);
+    } else if (isWorse(this.ids[0], this.scores[0], id, score)) {
+      this.ids[0] = id;
+      this.scores[0] = score;
+      this.siftDown(0);
+    }
+  }
+
+  //Returns the number of entries in this heap.
+  public int size() {
+    return this.size;
+  }
+
+  //Removes all entries from this heap and returns their ids, the best entry first.
+  public int[] toSortedArray() {
+    int[] result = new int[this.size];
+    for (int i = result.length - 1; i >= 0; i--) {
+      result[i] = this.ids[0];
+      this.size--;
+      this.ids[0] = this.ids[this.size];
+      this.scores[0] = this.scores[this.size];
+      this.siftDown(0);
+    }
+    return result;
+  }
+
+  //Returns true, if the entry (id1, score1) is worse than the entry (id2, score2).
+  private static boolean isWorse(int id1, double score1, int id2, double score2) {
+    return score1 < score2 || (score1 == score2 && id1 > id2);
+  }
+
+  //Moves the entry at the specified position up, until its parent is worse.
+  private void siftUp(int pos) {
+    while (pos > 0) {
+      int parent = (pos - 1) / 2;
+      if (!isWorse(this.ids[pos], this.scores[pos], this.ids[parent], this.scores[parent])) {
+        return;
+      }
+      this.swap(pos, parent);
+      pos = parent;
+    }
+  }
+
+  //Moves the entry at the specified position down, until both children are better.
+  private void siftDown(int pos) {
+    while (2 * pos + 1 < this.size) {
+      int child = 2 * pos + 1;
+      if (child + 1 < this.size
+          && isWorse(this.ids[child + 1], this.scores[child + 1], this.ids[child], this.scores[child])) {
+        child++;
+      }
+      if (!isWorse(this.ids[child], this.scores[child], this.ids[pos], this.scores[pos])) {
+        return;
+      }
+      this.swap(pos, child);
+      pos = child;
+    }
+  }
+
+  //Swaps the entries at the specified positions.
+  private void swap(int pos1, int pos2) {
+    int tmpId = this.ids[pos1];
+    this.ids[pos1] = this.ids[pos2];
+    this.ids[pos2] = tmpId;
+
+    double tmpScore = this.scores[pos1];
+    this.scores[pos1] = this.scores[pos2];
+    this.scores[pos2] = tmpScore;
+  }
+}
@@ -4,12 +4,16 @@ import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.util.List;
 import java.util.TreeMap;
 import java.util.stream.IntStream;
 
 import util.Terminal;
 
 public class WebserverThread extends Thread {
+  //the maximum number of results shown for a search request
+  private static final int MAX_RESULTS = 10;
+
   private TemplateProcessor tp;
   private LinkedDocumentCollection ldc;
   private Socket client;
@@ -33,21 +37,21 @@ public class WebserverThread extends Thread {
     varass.put("%value", query);
     varass.put("%results", "");
     String msg = "";
-    synchronized (ldc) {
-      double pageRankDampingFactor = 0.85;
-      double weightingFactor = 0.6;
-      double[] relevance = ldc.match(query, pageRankDampingFactor, weightingFactor);
-      if (ldc.numDocuments() > 0)
-        msg += "<tr><td><b>ID</b></td><td><b>Page</b></td><td><b>Relevance</b></td></tr>";
-      msg += IntStream.range(0, ldc.numDocuments()).boxed().reduce("", (acc, i) -> {
-        acc += "<tr>";
-        acc += "<td>" + (i + 1) + "</td>";
-        acc += "<td><a href=\"" + ldc.get(i).getTitle() + "\">" + ldc.get(i).getTitle() + "</a></td>";
-        acc += "<td>" + relevance[i] + "</td>";
-        acc += "</tr>";
-        return acc;
-      }, (a, b) -> a + b);
-    }
+    /* the collection is not changed by the query, so no lock is needed */
+    double pageRankDampingFactor = 0.85;
+    double weightingFactor = 0.6;
+    List<SearchResult> results = ldc.match(query, MAX_RESULTS, pageRankDampingFactor, weightingFactor);
+    if (results.size() > 0)
+      msg += "<tr><td><b>ID</b></td><td><b>Page</b></td><td><b>Relevance</b></td></tr>";
+    msg += IntStream.range(0, results.size()).boxed().reduce("", (acc, i) -> {
+      Document doc = results.get(i).getDocument();
+      acc += "<tr>";
+      acc += "<td>" + (i + 1) + "</td>";
+      acc += "<td><a href=\"" + doc.getTitle() + "\">" + doc.getTitle() + "</a></td>";
+      acc += "<td>" + results.get(i).getRelevance() + "</td>";
+      acc += "</tr>";
+      return acc;
+    }, (a, b) -> a + b);
     varass.put("%results", msg);
     String body = tp.replace(varass);
     return new HttpResponse(HttpStatus.Ok, body);
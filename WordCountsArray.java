@@ -1,8 +1,16 @@
+import java.util.Arrays;
+
+//This class manages words and their counts. The words are stored as term IDs of the TermDictionary.
 public class WordCountsArray {
-  private WordCount[] wordCounts;
+  private int[] termIDs;
+  private int[] counts;
   private int actualSize;
   private int maxSize;
 
+  //open addressing hash table (linear probing) mapping term IDs to their index in termIDs;
+  //an entry stores index + 1, so 0 marks an empty entry. The table is at most half full.
+  private int[] hashTable;
+
   // Creates a new instance of this class.
   public WordCountsArray(int maxSize) {
     if (maxSize < 0) {
@@ -12,10 +20,12 @@ public class WordCountsArray {
     }
 
     this.actualSize = 0;
-    this.wordCounts = new WordCount[this.maxSize];
+    this.termIDs = new int[this.maxSize];
+    this.counts = new int[this.maxSize];
+    this.rebuildHashTable();
   }
 
-  // Adds the specified word with the specified count 
+  // Adds the specified word with the specified count
   public void add(String word, int count) {
     if (word == null || word.equals("")) {
       return;
@@ -25,146 +35,66 @@ public class WordCountsArray {
       return;
     }
 
-    int index = getIndexOfWord(word.toLowerCase());
+    this.addTerm(TermDictionary.getInstance().getID(word.toLowerCase()), count);
+  }
+
+  // Adds the term with the specified ID with the specified count
+  public void addTerm(int termID, int count) {
+    if (termID < 0 || count < 0) {
+      return;
+    }
+
+    int index = getIndexOfTerm(termID);
 
     if (index == -1) {
       if (actualSize == maxSize) {
         this.doubleSize();
       }
 
-      this.wordCounts[actualSize] = new WordCount(word.toLowerCase(), count);
+      this.termIDs[actualSize] = termID;
+      this.counts[actualSize] = count;
       this.actualSize++;
+      this.insertIntoHashTable(actualSize - 1);
     } else {
-      this.wordCounts[index].incrementCount(count);
+      this.counts[index] += count;
     }
   }
 
-  // Determines, whether the words of this instance and the words in the specified WordCountsArray are equal
-  private boolean wordsEqual(WordCountsArray wca) {
-    if (this == wca) {
-      return true;
-    }
-
-    if ((wca == null) || (this.size() != wca.size())) {
-      return false;
-    }
-
-    // compare every single word at every position
-    for (int i = 0; i < this.size(); i++) {
-      if (!this.getWord(i).equals(wca.getWord(i))) {
-        return false;
-      }
-    }
-
-    return true;
-  }
-
   // Calculate the scalar product of the word counts of this instance and the word counts of the specified WordCountsArray.
+  // Words that are only contained in one of the instances do not contribute to the scalar product.
   private double scalarProduct(WordCountsArray wca) {
     if (wca == null) {
       return 0;
     }
-    if (this.size() != wca.size()) {
-      return 0;
-    }
-
-    if ((this != wca) && !this.wordsEqual(wca)) {
-      return 0;
-    }
 
     double scalarProduct = 0;
 
     for (int i = 0; i < this.size(); i++) {
-      scalarProduct += this.getCount(i) * wca.getCount(i);
-    }
-
-    return scalarProduct;
-  }
-
-  // Sorts the WordCount-objects
-   public void sort() {
-    this.doBubbleSort();
-  }
-
-  //Sorts the WordCount objects managed by this instance with the bubble sort algorithm.
-  private void doBubbleSort() {
-    for (int pass = 1; pass < this.actualSize; pass++) {
-      for (int i = 0; i < this.actualSize - pass; i++) {
-        if (this.getWord(i).compareTo(this.getWord(i + 1)) > 0) {
-          WordCount tmp = this.wordCounts[i];
-          this.wordCounts[i] = this.wordCounts[i + 1];
-          this.wordCounts[i + 1] = tmp;
-        }
+      int index = (this == wca) ? i : wca.getIndexOfTerm(this.termIDs[i]);
+      if (index != -1) {
+        scalarProduct += this.counts[i] * (double) wca.counts[index];
       }
     }
-  }
 
-  private static int bucketAt(String word, int maxLength, int index) {
-    int iPrime = maxLength - index - 1;
-    if(iPrime >= word.length())
-      return 0;
-    return word.charAt(iPrime) - 'a' + 1;
+    return scalarProduct;
   }
-  
-  // Sorts the WordCounts-objects managed by this instance with the bucket sort algorithm.
-  private void doBucketSort() {
-    // one bucket for every character
-    WordCountsArray[] buckets = new WordCountsArray[27];
-
-    for (int i = 0; i < buckets.length; i++)
-      buckets[i] = new WordCountsArray(this.actualSize / buckets.length);
-
-    int maxLength = 0;
-    for (int i = 0; i < this.actualSize; i++) {
-      maxLength = Math.max(maxLength, this.getWord(i).length());
-    }
 
-    // sort words into buckets
+  // Sorts the words ascending by their term IDs
+  public void sort() {
+    /* pack term ID and count into one long, so the pairs can be sorted as primitives */
+    long[] packed = new long[this.actualSize];
     for (int i = 0; i < this.actualSize; i++) {
-      String word = this.getWord(i);
-      int charIndex = bucketAt(word, maxLength, 0);
-      if (charIndex >= 0) {
-        int count = this.getCount(i);
-        buckets[charIndex].add(word, count);
-      }
+      packed[i] = ((long) this.termIDs[i] << 32) | this.counts[i];
     }
 
-    for (int pos = 1; pos < maxLength; pos++) {
-      WordCountsArray[] bucketsNew = new WordCountsArray[buckets.length];
-      for (int i = 0; i < bucketsNew.length; i++)
-        bucketsNew[i] = new WordCountsArray(this.actualSize / buckets.length);
-      for (int i = 0; i < buckets.length; i++) {
-        for (int j = 0; j < buckets[i].size(); j++) {
-          String word = buckets[i].getWord(j);
-          int charIndex = bucketAt(word, maxLength, pos);
-          int count = buckets[i].getCount(j);
-          bucketsNew[charIndex].add(word, count);
-        }
-      }
-      buckets = bucketsNew;
-    }
-
-    WordCount[] newWordCounts = new WordCount[this.actualSize];
+    Arrays.sort(packed);
 
-    int j = 0;
-    for (int bucket = 0; bucket < buckets.length; bucket++) {
-      for (int i = 0; i < buckets[bucket].size(); i++) {
-        newWordCounts[j] = buckets[bucket].get(i);
-        j++;
-      }
-    }
-
-    this.wordCounts = newWordCounts;
-    this.maxSize = this.actualSize;
-  }
-
-  //Private helper method that returns the WordCount-object at the specified index.
-  private WordCount get(int index) {
-    if (index < 0 || index >= this.actualSize) {
-      return null;
+    for (int i = 0; i < this.actualSize; i++) {
+      this.termIDs[i] = (int) (packed[i] >>> 32);
+      this.counts[i] = (int) packed[i];
     }
 
-    return this.wordCounts[index];
+    this.rebuildHashTable();
   }
 
   // Calculate the similarity of this instance and the specified WordCountsArray
@@ -190,16 +120,11 @@ public class WordCountsArray {
     if (wca == null || dc == null) {
       return 0;
     }
-    wca.scalarProduct(wca, dc);
-
-    double scalarProduct = 0;
-
-    scalarProduct = this.scalarProduct(wca, dc);
 
-    return scalarProduct;
+    return this.scalarProduct(wca, dc);
   }
 
-  // Returns the number of words 
+  // Returns the number of words
   public int size() {
     return this.actualSize;
   }
@@ -210,7 +135,16 @@ public class WordCountsArray {
       return null;
     }
 
-    return this.wordCounts[index].getWord();
+    return TermDictionary.getInstance().getTerm(this.termIDs[index]);
+  }
+
+  // Returns the term ID of the word at the position index of the WordCount-Array.
+  public int getTermID(int index) {
+    if (index < 0 || index >= this.actualSize) {
+      return -1;
+    }
+
+    return this.termIDs[index];
   }
 
   // Returns the count of the word at position index of the WordCount-Array.
@@ -219,7 +153,7 @@ public class WordCountsArray {
       return -1;
     }
 
-    return this.wordCounts[index].getCount();
+    return this.counts[index];
   }
 
   // Returns the index of the internal WordCount-Array where the specified word is managed.
@@ -228,15 +162,59 @@ public class WordCountsArray {
       return -1;
     }
 
-    for (int i = 0; i < this.actualSize; i++) {
-      if (this.wordCounts[i].getWord().equals(word)) {
-        return i;
+    return getIndexOfTerm(TermDictionary.getInstance().lookup(word));
+  }
+
+  // Returns the index of the internal WordCount-Array where the term with the specified ID is managed.
+  public int getIndexOfTerm(int termID) {
+    if (termID < 0) {
+      return -1;
+    }
+
+    int mask = this.hashTable.length - 1;
+    int pos = hash(termID) & mask;
+
+    while (this.hashTable[pos] != 0) {
+      if (this.termIDs[this.hashTable[pos] - 1] == termID) {
+        return this.hashTable[pos] - 1;
       }
+      pos = (pos + 1) & mask;
     }
 
     return -1;
   }
 
+  // Spreads the bits of the specified term ID, since term IDs are dense small numbers.
+  private static int hash(int termID) {
+    int h = termID * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  // Inserts the word at the specified index into the hash table. The word must not be contained in the table yet.
+  private void insertIntoHashTable(int index) {
+    int mask = this.hashTable.length - 1;
+    int pos = hash(this.termIDs[index]) & mask;
+
+    while (this.hashTable[pos] != 0) {
+      pos = (pos + 1) & mask;
+    }
+
+    this.hashTable[pos] = index + 1;
+  }
+
+  // Creates a new hash table that is large enough for maxSize words and inserts all words.
+  private void rebuildHashTable() {
+    int capacity = 2;
+    while (capacity < 2 * this.maxSize) {
+      capacity *= 2;
+    }
+
+    this.hashTable = new int[capacity];
+    for (int i = 0; i < this.actualSize; i++) {
+      this.insertIntoHashTable(i);
+    }
+  }
+
   // Sets the count of the word at position index of the WordCount-Array to the specified count.
   public void setCount(int index, int count) {
     if (index < 0 || index >= this.actualSize) {
@@ -244,13 +222,13 @@ public class WordCountsArray {
     }
 
     if (count < 0) {
-      this.wordCounts[index].setCount(0);
+      this.counts[index] = 0;
     } else {
-      this.wordCounts[index].setCount(count);
+      this.counts[index] = count;
     }
   }
 
-  // Doubles the number of manageable WordCount-objects.
+  // Doubles the number of manageable words.
   private void doubleSize() {
     this.maxSize = this.maxSize * 2;
 
@@ -258,13 +236,9 @@ public class WordCountsArray {
       this.maxSize = 1;
     }
 
-    WordCount[] newWordCounts = new WordCount[this.maxSize];
-
-    for (int i = 0; i < this.wordCounts.length; i++) {
-      newWordCounts[i] = this.wordCounts[i];
-    }
-
-    this.wordCounts = newWordCounts;
+    this.termIDs = Arrays.copyOf(this.termIDs, this.maxSize);
+    this.counts = Arrays.copyOf(this.counts, this.maxSize);
+    this.rebuildHashTable();
   }
 
   // Returns true, if this instance and the specified WordCountsArray are equal.
@@ -278,7 +252,7 @@ public class WordCountsArray {
     }
 
     for (int i = 0; i < this.size(); i++) {
-      if (!this.getWord(i).equals(wca.getWord(i)) || this.getCount(i) != wca.getCount(i)) {
+      if (this.termIDs[i] != wca.termIDs[i] || this.counts[i] != wca.counts[i]) {
         return false;
       }
     }
@@ -286,69 +260,50 @@ public class WordCountsArray {
     return true;
   }
 
-  // This private helper method calculates the normalized weights of the words 
-  private void calculateNormalizedWeights(DocumentCollection dc) {
-    if (dc == null) {
-      return;
-    }
-    this.calculateWeights(dc);
+  // This private helper method calculates the normalized weights of the words
+  private double[] calculateNormalizedWeights(DocumentCollection dc) {
+    double[] weights = this.calculateWeights(dc);
     double norm = 0;
 
     for (int i = 0; i < this.size(); i++) {
-      norm += this.wordCounts[i].getWeight() * this.wordCounts[i].getWeight();
+      norm += weights[i] * weights[i];
     }
 
     if (norm > 0) {
       norm = Math.sqrt(norm);
 
       for (int i = 0; i < this.size(); i++) {
-        this.wordCounts[i].setNormalizedWeight(this.wordCounts[i].getWeight() / norm);
-      }
-    } else {
-       for (int i = 0; i < this.size(); i++) {
-        this.wordCounts[i].setNormalizedWeight(0);
+        weights[i] = weights[i] / norm;
       }
     }
+
+    return weights;
   }
 
   // This private helper method calculates the weights of the words according to the specified DocumentCollection.
-  private void calculateWeights(DocumentCollection dc) {
-    if (dc == null) {
-      return;
-    }
+  private double[] calculateWeights(DocumentCollection dc) {
+    double[] weights = new double[this.size()];
 
     // loop over all words, calculate their weights and store them
     for (int i = 0; i < this.size(); i++) {
-      int noOfDocumentsContainingWord = dc.noOfDocumentsContainingWord(this.getWord(i));
-
-        if (noOfDocumentsContainingWord != 0) {
-        double invDocFreq = Math.log((dc.numDocuments() + 1) / (double) dc.noOfDocumentsContainingWord(this.getWord(i)));
-        wordCounts[i].setWeight(this.getCount(i) * invDocFreq);
-      } else {
-        wordCounts[i].setWeight(0);
-      }
+      weights[i] = this.getCount(i) * dc.inverseDocumentFrequency(this.termIDs[i]);
     }
+
+    return weights;
   }
 
-  // Calculate the complex scalar product of the normalized weights of this instance and the normalized weights 
+  // Calculate the complex scalar product of the normalized weights of this instance and the normalized weights
   // of the specified WordCountsArray. The scalar product is calculated according to the specified DocumentCollection
   private double scalarProduct(WordCountsArray wca, DocumentCollection dc) {
-    if (wca == null || dc == null) { System.out.println("(wca == null || dc == null)");
-      return 0;
-    }
-
-    if (this.size() != wca.size()) { System.out.println("(this.size() != wca.size()): " + size() + " != " + wca.size());
-      return 0;
-    }
-
-    if ((this != wca) && !this.wordsEqual(wca)) { System.out.println("((this != wca) && !this.wordsEqual(wca))");
-      return 0;
-    }
-    this.calculateNormalizedWeights(dc);
+    double[] weightsThis = this.calculateNormalizedWeights(dc);
+    double[] weightsWca = (this == wca) ? weightsThis : wca.calculateNormalizedWeights(dc);
     double scalarProduct = 0;
 
     for (int i = 0; i < this.size(); i++) {
-      scalarProduct += this.wordCounts[i].getNormalizedWeight() * wca.wordCounts[i].getNormalizedWeight();
+      int index = (this == wca) ? i : wca.getIndexOfTerm(this.termIDs[i]);
+      if (index != -1) {
+        scalarProduct += weightsThis[i] * weightsWca[index];
+      }
     }
 
     return scalarProduct;